@@ -0,0 +1,117 @@
+package com.noteplace.readingsummary.auth.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * 同じトークンで JwtAuthFilter を通したときの 1 リクエストあたりの時間を比べる。
+ * <ul>
+ *   <li>perRequestParser: 以前のフィルタ。リクエストごとに JwtParser を作って署名検証する</li>
+ *   <li>sharedParser: いまのフィルタでキャッシュなし（app.jwt.cache-size=0）。共有の JwtParser で毎回検証する</li>
+ *   <li>cached: いまのフィルタ。2 回目以降は検証済みトークンのキャッシュから返す</li>
+ * </ul>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="JwtAuthFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+  private static final String SECRET = "dev-secret-change-me-please-32bytes-minimum";
+  private static final String ISSUER = "readingsummary";
+  private static final FilterChain NOOP = (req, res) -> {};
+
+  private String header;
+  private OncePerRequestFilter perRequestParser;
+  private OncePerRequestFilter sharedParser;
+  private OncePerRequestFilter cached;
+
+  @Setup
+  public void setUp() {
+    var uncachedService = new JwtService(SECRET, ISSUER, 60, new JwtAuthCache(0));
+    var cachedService = new JwtService(SECRET, ISSUER, 60, new JwtAuthCache(100_000));
+    header = "Bearer " + cachedService.generate(new AuthUser(42L, "bench@example.com", "USER"));
+    perRequestParser = new PerRequestParserFilter();
+    sharedParser = new JwtAuthFilter(uncachedService);
+    cached = new JwtAuthFilter(cachedService);
+  }
+
+  @Benchmark
+  public Object perRequestParser() throws Exception {
+    return run(perRequestParser);
+  }
+
+  @Benchmark
+  public Object sharedParser() throws Exception {
+    return run(sharedParser);
+  }
+
+  @Benchmark
+  public Object cached() throws Exception {
+    return run(cached);
+  }
+
+  private Object run(OncePerRequestFilter filter) throws Exception {
+    // OncePerRequestFilter は処理済みの印をリクエストに付けるので毎回作る
+    var req = new MockHttpServletRequest("GET", "/api/books");
+    req.addHeader("Authorization", header);
+    filter.doFilter(req, new MockHttpServletResponse(), NOOP);
+    Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    SecurityContextHolder.clearContext();
+    return principal;
+  }
+
+  // 以前の JwtAuthFilter + JwtService.parse と同じ
+  private static final class PerRequestParserFilter extends OncePerRequestFilter {
+    private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+      String auth = request.getHeader("Authorization");
+      if (auth != null && auth.startsWith("Bearer ")) {
+        String token = auth.substring(7);
+        try {
+          var c = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+          Long uid = c.get("uid", Integer.class) != null ? c.get("uid", Integer.class).longValue() : c.get("uid", Long.class);
+          var principal = new AuthUser(uid, c.getSubject(), c.get("role", String.class));
+          var authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+          SecurityContextHolder.getContext().setAuthentication(authentication);
+        } catch (Exception ignore) {
+          SecurityContextHolder.clearContext();
+        }
+      }
+      chain.doFilter(request, response);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * レポート 1 本あたりのフォントの扱いを比べる（章ごとの要約を CHAPTERS 個持つ本）。
+ * <ul>
+ *   <li>perReport: 以前の PdfReportService。ttf を読み直して BaseFont を 4 回 + 章ごとに 1 回作る</li>
+ *   <li>shared: ReportFontRegistry。JVM で 1 回だけ読んだ BaseFont と Font を使い回す</li>
+ * </ul>
+ * どちらも PDF を最後まで書き出す（サブセット埋め込みの分も含む）。
+ * フォントは -p font=file:/path/to/font.ttf で差し替えられる（既定は本番と同じクラスパスの NotoSansJP）。
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="FontLoadingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FontLoadingBenchmark {
+
+  private static final int CHAPTERS = 10;
+  private static final String TEXT = "読書の記録をつけると、続けやすくなる。Reading notes, chapter by chapter.";
+
+  @Param("classpath:fonts/NotoSansJP-Regular.ttf")
+  public String font;
+
+  private Resource resource;
+  private ReportFontRegistry registry;
+
+  @Setup
+  public void setUp() throws IOException {
+    resource = new DefaultResourceLoader().getResource(font);
+    registry = new ReportFontRegistry(resource);
+    registry.load();
+  }
+
+  @Benchmark
+  public byte[] perReport() throws Exception {
+    return render(new Font(loadJapaneseBaseFont(), 18, Font.BOLD), new Font(loadJapaneseBaseFont(), 13, Font.BOLD),
+        null, new Font(loadJapaneseBaseFont(), 10));
+  }
+
+  @Benchmark
+  public byte[] shared() throws Exception {
+    return render(registry.title(), registry.heading(), registry.chapter(), registry.body());
+  }
+
+  // chapterFont が null なら、以前と同じく章ごとに作る
+  private byte[] render(Font titleFont, Font hFont, Font chapterFont, Font bodyFont) throws Exception {
+    var out = new ByteArrayOutputStream();
+    var doc = new Document(PageSize.A4, 36, 36, 36, 36);
+    PdfWriter.getInstance(doc, out);
+    doc.open();
+    doc.add(new Paragraph("Reading Report", titleFont));
+    doc.add(new Paragraph("Chapter Summaries", hFont));
+    for (int c = 1; c <= CHAPTERS; c++) {
+      Font f = chapterFont != null ? chapterFont : new Font(loadJapaneseBaseFont(), 11, Font.BOLD);
+      doc.add(new Paragraph("Chapter " + c, f));
+      doc.add(new Paragraph(TEXT, bodyFont));
+    }
+    doc.close();
+    return out.toByteArray();
+  }
+
+  // 以前の PdfReportService.loadJapaneseBaseFont と同じ
+  private BaseFont loadJapaneseBaseFont() throws Exception {
+    byte[] bytes = resource.getInputStream().readAllBytes();
+    return BaseFont.createFont("NotoSansJP-Regular.ttf", BaseFont.IDENTITY_H, BaseFont.EMBEDDED, true, bytes, null);
+  }
+}
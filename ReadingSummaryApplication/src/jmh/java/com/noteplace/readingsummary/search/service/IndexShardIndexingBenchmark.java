@@ -0,0 +1,70 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 索引づくりの速さ。
+ * <ul>
+ *   <li>build: 空の IndexShard に要約を docs 件入れる（初回読み込みと同じ）。件数/秒は docs ÷ 時間</li>
+ *   <li>update: docs 件入った IndexShard で 1 件ずつ上書きする（保存のたびの更新。半分が削除済みになると詰め直しも走る）</li>
+ *   <li>tokenize: 要約 1 件を CjkBigramTokenizer にかける</li>
+ * </ul>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="IndexShardIndexingBenchmark"
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexShardIndexingBenchmark {
+
+  @Param({"1000", "10000"})
+  public int docs;
+
+  private String[] texts;
+  private IndexShard shard;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    texts = SummaryTexts.generate(docs, 42);
+    shard = build();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public IndexShard build() {
+    var s = new IndexShard();
+    for (int i = 0; i < texts.length; i++) s.put(i, i % 20, i, texts[i]);
+    return s;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public IndexShard update() {
+    int i = next++ % texts.length;
+    shard.put(i, i % 20, next, texts[(i + next) % texts.length]);
+    return shard;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public List<String> tokenize() {
+    return CjkBigramTokenizer.tokenize(texts[next++ % texts.length]);
+  }
+}
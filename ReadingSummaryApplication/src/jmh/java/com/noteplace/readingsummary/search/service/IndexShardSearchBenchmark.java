@@ -0,0 +1,53 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 入力中検索 1 回のレイテンシ（p50 / p99 など）。SummaryIndexService.search と同じく、
+ * 入力を CjkBigramTokenizer で語に分けてから IndexShard.search に渡す（最後の語は前方一致）。
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="IndexShardSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexShardSearchBenchmark {
+
+  private static final int LIMIT = 20;
+
+  @Param({"1000", "10000"})
+  public int docs;
+
+  // 頻出語 / 中くらい / まれ / 2 語 / 英字の前方一致 / 入力途中（2 語目が 1 文字）
+  @Param({"読書", "経済", "宇宙", "読書 経済", "jav", "読書 記"})
+  public String q;
+
+  private IndexShard shard;
+
+  @Setup
+  public void setUp() {
+    String[] texts = SummaryTexts.generate(docs, 42);
+    shard = new IndexShard();
+    for (int i = 0; i < texts.length; i++) shard.put(i, i % 20, i, texts[i]);
+  }
+
+  @Benchmark
+  public List<IndexShard.Hit> search() {
+    return shard.search(CjkBigramTokenizer.tokenize(q), LIMIT);
+  }
+}
@@ -0,0 +1,38 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.util.Random;
+
+/**
+ * ベンチマーク用の要約本文。よく使う語ほど多く出る（出現頻度は Zipf 風）。
+ */
+final class SummaryTexts {
+
+  private static final String[] WORDS = {
+      "読書", "今日は", "本を", "読んだ", "経済", "歴史", "要約", "章", "面白い", "考え方",
+      "仕事", "習慣", "記録", "続ける", "学び", "社会", "科学", "心理", "物語", "主人公",
+      "Java", "入門", "設計", "データ", "分析", "戦略", "組織", "言葉", "文化", "哲学",
+      "統計", "投資", "健康", "睡眠", "料理", "旅行", "写真", "音楽", "数学", "宇宙",
+      "生物", "進化", "脳", "記憶", "集中", "時間", "お金", "家族", "教育", "未来",
+  };
+
+  private SummaryTexts() {}
+
+  static String[] generate(int n, long seed) {
+    var random = new Random(seed);
+    var out = new String[n];
+    for (int i = 0; i < n; i++) {
+      var sb = new StringBuilder();
+      // 1 要約は 3〜6 文
+      for (int s = 0, sentences = 3 + random.nextInt(4); s < sentences; s++) {
+        for (int w = 0, words = 8 + random.nextInt(8); w < words; w++) {
+          double r = random.nextDouble();
+          sb.append(WORDS[(int) (WORDS.length * r * r * r)]);
+          sb.append(random.nextInt(4) == 0 ? "、" : "");
+        }
+        sb.append("。");
+      }
+      out[i] = sb.toString();
+    }
+    return out;
+  }
+}
@@ -0,0 +1,80 @@
+package com.noteplace.readingsummary.auth.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 検証済みトークン（の SHA-256）→ AuthUser のキャッシュ。
+ * エントリはトークンの exp で失効する。トークン文字列そのものは保持しない。
+ */
+@Component
+public class JwtAuthCache {
+
+  private record Entry(AuthUser user, long expiresAtMillis) {}
+
+  // 満杯時の掃除（全件走査）は 1 秒に 1 回まで
+  private static final long PURGE_INTERVAL_MILLIS = 1000;
+
+  private final ConcurrentHashMap<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+  private final int maxEntries;
+  private final AtomicLong lastPurgeMillis = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public JwtAuthCache(@Value("${app.jwt.cache-size}") int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public AuthUser get(String token) {
+    Entry e = entries.get(digest(token));
+    if (e == null || e.expiresAtMillis() <= System.currentTimeMillis()) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return e.user();
+  }
+
+  public void put(String token, AuthUser user, Instant expiresAt) {
+    if (expiresAt == null) return; // exp なしのトークンはキャッシュしない
+    if (entries.size() >= maxEntries) {
+      long last = lastPurgeMillis.get();
+      if (System.currentTimeMillis() - last >= PURGE_INTERVAL_MILLIS
+          && lastPurgeMillis.compareAndSet(last, System.currentTimeMillis())) {
+        purgeExpired();
+      }
+      if (entries.size() >= maxEntries) return; // 満杯のときは検証だけして素通り
+    }
+    entries.put(digest(token), new Entry(user, expiresAt.toEpochMilli()));
+  }
+
+  @Scheduled(fixedDelay = 60_000)
+  public void purgeExpired() {
+    long now = System.currentTimeMillis();
+    lastPurgeMillis.set(now);
+    entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+  }
+
+  public long hitCount() { return hits.sum(); }
+  public long missCount() { return misses.sum(); }
+  public int size() { return entries.size(); }
+
+  private static ByteBuffer digest(String token) {
+    try {
+      return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
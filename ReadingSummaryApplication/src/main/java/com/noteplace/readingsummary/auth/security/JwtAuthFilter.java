@@ -25,13 +25,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     if (auth != null && auth.startsWith("Bearer ")) {
       String token = auth.substring(7);
       try {
-        var jws = jwtService.parse(token);
-        var c = jws.getPayload();
-        Long uid = c.get("uid", Integer.class) != null ? c.get("uid", Integer.class).longValue() : c.get("uid", Long.class);
-        String email = c.getSubject();
-        String role = c.get("role", String.class);
-
-        var principal = new AuthUser(uid, email, role);
+        var principal = jwtService.authenticate(token);
         var authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
       } catch (Exception ignore) {
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -19,14 +20,19 @@ public class JwtService {
   private final SecretKey key;
   private final String issuer;
   private final int minutes;
+  private final JwtParser parser; // スレッドセーフなので使い回す
+  private final JwtAuthCache cache;
 
   public JwtService(
       @Value("${app.jwt.secret}") String secret,
       @Value("${app.jwt.issuer}") String issuer,
-      @Value("${app.jwt.access-token-minutes}") int minutes) {
+      @Value("${app.jwt.access-token-minutes}") int minutes,
+      JwtAuthCache cache) {
     this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     this.issuer = issuer;
     this.minutes = minutes;
+    this.parser = Jwts.parser().verifyWith(key).build();
+    this.cache = cache;
   }
 
   public String generate(AuthUser user) {
@@ -43,6 +49,20 @@ public class JwtService {
   }
 
   public Jws<Claims> parse(String token) {
-    return Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+    return parser.parseSignedClaims(token);
+  }
+
+  /**
+   * トークンを検証して AuthUser を返す。同じトークンは exp まで署名検証を省く。
+   */
+  public AuthUser authenticate(String token) {
+    AuthUser cached = cache.get(token);
+    if (cached != null) return cached;
+
+    Claims c = parse(token).getPayload();
+    Long uid = c.get("uid", Integer.class) != null ? c.get("uid", Integer.class).longValue() : c.get("uid", Long.class);
+    var user = new AuthUser(uid, c.getSubject(), c.get("role", String.class));
+    cache.put(token, user, c.getExpiration() == null ? null : c.getExpiration().toInstant());
+    return user;
   }
 }
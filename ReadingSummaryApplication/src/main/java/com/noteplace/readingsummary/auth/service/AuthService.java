@@ -1,5 +1,57 @@
 package com.noteplace.readingsummary.auth.service;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.auth.dto.LoginRequest;
+import com.noteplace.readingsummary.auth.dto.RegisterRequest;
+import com.noteplace.readingsummary.auth.dto.TokenResponse;
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.auth.security.JwtService;
+import com.noteplace.readingsummary.user.domain.User;
+import com.noteplace.readingsummary.user.repository.UserRepository;
+
+@Service
 public class AuthService {
 
+  private final UserRepository userRepo;
+  private final PasswordHasher hasher;
+  private final JwtService jwtService;
+
+  public AuthService(UserRepository userRepo, PasswordHasher hasher, JwtService jwtService) {
+    this.userRepo = userRepo;
+    this.hasher = hasher;
+    this.jwtService = jwtService;
+  }
+
+  public TokenResponse register(RegisterRequest req) {
+    if (userRepo.existsByEmail(req.email())) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "email already exists");
+    }
+    User u = new User();
+    u.setEmail(req.email());
+    u.setPasswordHash(hasher.encode(req.password()));
+    u.setRole("USER");
+    userRepo.save(u);
+    return token(u);
+  }
+
+  public TokenResponse login(LoginRequest req) {
+    User u = userRepo.findByEmail(req.email())
+      .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "invalid credentials"));
+    String hash = u.getPasswordHash();
+    if (!hasher.matches(req.password(), hash)) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "invalid credentials");
+    }
+    // コストを上げた後は、平文が手元にあるログイン時に作り直す（応答は待たせない）
+    if (hasher.needsUpgrade(hash)) {
+      hasher.encodeLater(req.password(), upgraded -> userRepo.updatePasswordHash(u.getId(), hash, upgraded));
+    }
+    return token(u);
+  }
+
+  private TokenResponse token(User u) {
+    return new TokenResponse(jwtService.generate(new AuthUser(u.getId(), u.getEmail(), u.getRole())));
+  }
 }
@@ -0,0 +1,87 @@
+package com.noteplace.readingsummary.auth.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * パスワードのハッシュ化・照合（BCrypt は 1 回で数十 ms の CPU を使う）を専用の上限付きプールで行う。
+ * 待ち行列が満杯、または hash-timeout までに終わらなければ TaskRejectedException（→ 503 + Retry-After）。
+ * 待ち行列の長さは executor.queued{name=passwordHashExecutor} で見られる。
+ */
+@Component
+public class PasswordHasher {
+
+  private final PasswordEncoder encoder;
+  private final ThreadPoolTaskExecutor executor;
+  private final long timeoutMillis;
+  private final Timer encodeTimer;
+  private final Timer matchTimer;
+
+  public PasswordHasher(PasswordEncoder encoder,
+                        @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor,
+                        @Value("${app.auth.hash-timeout}") long timeoutMillis,
+                        MeterRegistry meters) {
+    this.encoder = encoder;
+    this.executor = executor;
+    this.timeoutMillis = timeoutMillis;
+    this.encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode").register(meters);
+    this.matchTimer = Timer.builder("auth.password.hash").tag("op", "matches").register(meters);
+  }
+
+  public String encode(String raw) {
+    return call(() -> encodeTimer.record(() -> encoder.encode(raw)));
+  }
+
+  public boolean matches(String raw, String hash) {
+    return call(() -> matchTimer.record(() -> encoder.matches(raw, hash)));
+  }
+
+  /** 保存済みハッシュのコストが現在の設定より低い。 */
+  public boolean needsUpgrade(String hash) {
+    return encoder.upgradeEncoding(hash);
+  }
+
+  /**
+   * 裏でハッシュを作って then に渡す。空いているスレッドがなければ何もしない（次の機会に回す）。
+   * 待ち行列に入れるとログインの照合より先に CPU を使ってしまうので、並ばせない。
+   */
+  public void encodeLater(String raw, Consumer<String> then) {
+    if (executor.getQueueSize() > 0 || executor.getActiveCount() >= executor.getMaxPoolSize()) return;
+    try {
+      executor.execute(() -> then.accept(encodeTimer.record(() -> encoder.encode(raw))));
+    } catch (TaskRejectedException e) {
+      // 再ハッシュは急がない
+    }
+  }
+
+  private <T> T call(Callable<T> task) {
+    Future<T> f = executor.submit(task); // 満杯なら TaskRejectedException
+    try {
+      return f.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      f.cancel(true);
+      throw new TaskRejectedException("password hashing timed out");
+    } catch (InterruptedException e) {
+      f.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new TaskRejectedException("password hashing interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import jakarta.validation.Valid;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
@@ -24,13 +26,28 @@ import com.noteplace.readingsummary.book.dto.BookResponse;
 import com.noteplace.readingsummary.book.dto.CreateBookRequest;
 import com.noteplace.readingsummary.book.dto.UpdateBookRequest;
 import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.BookChangedEvent.Entity;
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.common.pagination.Cursors;
+import com.noteplace.readingsummary.stats.service.ReadingStatsService;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
   private final BookRepository repo;
-
-  public BookController(BookRepository repo) { this.repo = repo; }
+  private final ReadingStatsService statsService;
+  private final ApplicationEventPublisher events;
+  private final BookOwnershipCache ownership;
+
+  public BookController(BookRepository repo, ReadingStatsService statsService, ApplicationEventPublisher events,
+                        BookOwnershipCache ownership) {
+    this.repo = repo;
+    this.statsService = statsService;
+    this.events = events;
+    this.ownership = ownership;
+  }
 
   @PostMapping
   public BookResponse create(@AuthenticationPrincipal AuthUser user, @Valid @RequestBody CreateBookRequest req) {
@@ -44,12 +61,24 @@ public class BookController {
     b.setTotalPages(req.totalPages());
     b.setCurrentPage(0);
     repo.save(b);
+    ownership.put(b.getId(), user.id());
+    statsService.onBookCreated(user.id(), b.getStatus());
+    events.publishEvent(BookChangedEvent.changed(Entity.BOOK, user.id(), b.getId()));
     return toRes(b);
   }
 
   @GetMapping
-  public List<BookResponse> list(@AuthenticationPrincipal AuthUser user) {
-    return repo.findByUserIdOrderByIdDesc(user.id()).stream().map(this::toRes).toList();
+  public CursorPage<BookResponse> list(
+      @AuthenticationPrincipal AuthUser user,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit
+  ) {
+    int n = Cursors.clamp(limit);
+    List<BookResponse> rows = (cursor == null)
+        ? repo.findPage(user.id(), Cursors.fetchLimit(n))
+        : repo.findPageAfter(
+            user.id(), Cursors.parse(Cursors.decode(cursor, 1)[0], Long::valueOf), Cursors.fetchLimit(n));
+    return CursorPage.of(rows, n, b -> Cursors.encode(b.id()));
   }
 
   private BookResponse toRes(Book b) {
@@ -59,9 +88,8 @@ public class BookController {
   
   @GetMapping("/{id}")
   public BookDetailResponse get(@AuthenticationPrincipal AuthUser user, @PathVariable Long id) {
-    Book b = repo.findByIdAndUserId(id, user.id())
+    return repo.findDetail(id, user.id())
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
-    return toDetail(b);
   }
 
   @PatchMapping("/{id}")
@@ -72,6 +100,7 @@ public class BookController {
   ) {
     Book b = repo.findByIdAndUserId(id, user.id())
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
+    String oldStatus = b.getStatus();
 
     if (req.title() != null) {
         if (req.title().isBlank()) {
@@ -92,6 +121,10 @@ public class BookController {
     }
 
     repo.save(b);
+    if (!b.getStatus().equals(oldStatus)) {
+      statsService.onBookStatusChanged(user.id(), oldStatus, b.getStatus());
+    }
+    events.publishEvent(BookChangedEvent.changed(Entity.BOOK, user.id(), id));
     return toDetail(b);
   }
   
@@ -101,6 +134,8 @@ public class BookController {
     Book b = repo.findByIdAndUserId(id, user.id())
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
     repo.delete(b);
+    statsService.onBookDeleted(user.id());
+    events.publishEvent(BookChangedEvent.deleted(user.id(), id));
   }
 
   private BookDetailResponse toDetail(Book b) {
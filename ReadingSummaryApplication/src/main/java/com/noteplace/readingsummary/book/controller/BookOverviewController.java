@@ -0,0 +1,77 @@
+package com.noteplace.readingsummary.book.controller;
+
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.book.dto.BookDetailResponse;
+import com.noteplace.readingsummary.book.dto.BookOverviewResponse;
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.common.pagination.Cursors;
+import com.noteplace.readingsummary.session.dto.ReadingSessionResponse;
+import com.noteplace.readingsummary.session.repository.ReadingSessionRepository;
+import com.noteplace.readingsummary.summary.dto.SummaryResponse;
+import com.noteplace.readingsummary.summary.repository.SummaryRepository;
+
+/**
+ * 詳細画面の初期表示を 1 リクエストで返す（所有チェックは 1 回だけ）。
+ * 続きのページは next カーソルを各一覧 API に渡して取る。
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookOverviewController {
+
+  private static final Set<String> INCLUDES = Set.of("sessions", "summaries");
+
+  private final BookRepository bookRepo;
+  private final ReadingSessionRepository sessionRepo;
+  private final SummaryRepository summaryRepo;
+
+  public BookOverviewController(BookRepository bookRepo, ReadingSessionRepository sessionRepo,
+                                SummaryRepository summaryRepo) {
+    this.bookRepo = bookRepo;
+    this.sessionRepo = sessionRepo;
+    this.summaryRepo = summaryRepo;
+  }
+
+  @GetMapping("/{id}/overview")
+  public BookOverviewResponse overview(
+      @AuthenticationPrincipal AuthUser user,
+      @PathVariable Long id,
+      @RequestParam(defaultValue = "sessions,summaries") Set<String> include,
+      @RequestParam(defaultValue = "50") int sessionLimit,
+      @RequestParam(defaultValue = "200") int summaryLimit
+  ) {
+    if (!INCLUDES.containsAll(include)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "include must be a subset of " + INCLUDES);
+    }
+
+    BookDetailResponse book = bookRepo.findDetail(id, user.id())
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
+
+    CursorPage<ReadingSessionResponse> sessions = null;
+    if (include.contains("sessions")) {
+      int n = Cursors.clamp(sessionLimit);
+      sessions = CursorPage.of(sessionRepo.findPage(id, Cursors.fetchLimit(n)), n,
+          s -> Cursors.encode(s.sessionDate(), s.id()));
+    }
+
+    CursorPage<SummaryResponse> summaries = null;
+    if (include.contains("summaries")) {
+      int n = Cursors.clamp(summaryLimit);
+      summaries = CursorPage.of(summaryRepo.findPage(id, Cursors.fetchLimit(n)), n,
+          s -> Cursors.encode(s.scope(), s.chapter() == null ? 0 : s.chapter(), s.id()));
+    }
+
+    return new BookOverviewResponse(book, sessions, summaries);
+  }
+}
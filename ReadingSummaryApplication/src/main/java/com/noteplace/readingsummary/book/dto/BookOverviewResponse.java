@@ -0,0 +1,14 @@
+package com.noteplace.readingsummary.book.dto;
+
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.session.dto.ReadingSessionResponse;
+import com.noteplace.readingsummary.summary.dto.SummaryResponse;
+
+/**
+ * 本の詳細画面用。include で指定されなかった項目は null。
+ */
+public record BookOverviewResponse(
+    BookDetailResponse book,
+    CursorPage<ReadingSessionResponse> sessions,
+    CursorPage<SummaryResponse> summaries
+) {}
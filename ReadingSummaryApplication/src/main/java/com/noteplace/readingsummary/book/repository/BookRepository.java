@@ -3,14 +3,69 @@ package com.noteplace.readingsummary.book.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.noteplace.readingsummary.book.domain.Book;
+import com.noteplace.readingsummary.book.dto.BookDetailResponse;
+import com.noteplace.readingsummary.book.dto.BookResponse;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
-	  List<Book> findByUserIdOrderByIdDesc(Long userId);
+	  // 一覧はキーセットページング（id 降順、カーソルは最後の id）。readOnly はレプリカへ回る。
+	  // 一括エクスポートはエンティティで受ける（PDF 生成に渡す）
+	  @Transactional(readOnly = true)
+	  List<Book> findByUserIdOrderByIdDesc(Long userId, Limit limit);
+	  @Transactional(readOnly = true)
+	  List<Book> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Limit limit);
+
+	  // 画面向けの読み取りは DTO で受けて永続化コンテキストに載せない（スナップショットを取らない）
+	  String RESPONSE = """
+	    select new com.noteplace.readingsummary.book.dto.BookResponse(
+	      b.id, b.title, b.author, b.language, b.level, b.status, b.totalPages, b.currentPage)
+	    from Book b
+	    """;
+
+	  @Transactional(readOnly = true)
+	  @Query(RESPONSE + """
+	    where b.userId = :userId
+	    order by b.id desc
+	  """)
+	  List<BookResponse> findPage(@Param("userId") Long userId, Limit limit);
+
+	  @Transactional(readOnly = true)
+	  @Query(RESPONSE + """
+	    where b.userId = :userId
+	      and b.id < :id
+	    order by b.id desc
+	  """)
+	  List<BookResponse> findPageAfter(@Param("userId") Long userId, @Param("id") Long id, Limit limit);
+
+	  @Transactional(readOnly = true)
+	  @Query("""
+	    select new com.noteplace.readingsummary.book.dto.BookDetailResponse(
+	      b.id, b.title, b.author, b.language, b.level, b.status, b.totalPages, b.currentPage)
+	    from Book b
+	    where b.id = :id
+	      and b.userId = :userId
+	  """)
+	  Optional<BookDetailResponse> findDetail(@Param("id") Long id, @Param("userId") Long userId);
 	  
 	  Optional<Book> findByIdAndUserId(Long id, Long userId);	
+	  // 所有チェックだけならエンティティを読まない
+	  boolean existsByIdAndUserId(Long id, Long userId);
+
+	  // 読み取り→加算→保存をせず 1 文で加算する。totalPages を超えるなら 0 件（呼び出し側で 400）
+	  @Modifying(clearAutomatically = true)
+	  @Query(nativeQuery = true, value = """
+	    update books set current_page = current_page + :pages
+	    where id = :id
+	      and (total_pages is null or current_page + :pages <= total_pages)
+	  """)
+	  int addPages(@Param("id") Long id, @Param("pages") int pages);
 
 	  long countByUserId(Long userId);
 	  long countByUserIdAndStatus(Long userId, String status);
@@ -0,0 +1,101 @@
+package com.noteplace.readingsummary.book.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.ClusterResyncEvent;
+
+/**
+ * bookId → userId のキャッシュ。本の所有者は変わらないので、削除時に消すだけでよい。
+ * ヒットしなければ existsByIdAndUserId で確認して載せる。
+ * 確認と載せる間に削除が入ると消えた本が載ってしまうので、削除の回数（deletions）を見て、
+ * 確認前から変わっていれば載せない。
+ */
+@Component
+public class BookOwnershipCache {
+
+  private final BookRepository bookRepo;
+  private final int maxEntries;
+
+  private final StampedLock lock = new StampedLock();
+  private final LongLongMap owners;
+  private long deletions; // lock で保護
+
+  public BookOwnershipCache(BookRepository bookRepo, @Value("${app.book.ownership-cache-size}") int maxEntries) {
+    this.bookRepo = bookRepo;
+    this.maxEntries = maxEntries;
+    this.owners = new LongLongMap(Math.min(maxEntries, 1 << 16));
+  }
+
+  /** 自分の本でなければ 404（存在しない本と区別しない）。 */
+  public void ensureOwned(long userId, long bookId) {
+    long owner;
+    long seen;
+    long stamp = lock.readLock();
+    try {
+      owner = owners.get(bookId);
+      seen = deletions;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+
+    if (owner == userId) return;
+    if (owner != 0 || !bookRepo.existsByIdAndUserId(bookId, userId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found");
+    }
+    long w = lock.writeLock();
+    try {
+      if (deletions == seen) putLocked(bookId, userId);
+    } finally {
+      lock.unlockWrite(w);
+    }
+  }
+
+  /** 作成直後の本を載せる。 */
+  public void put(long bookId, long userId) {
+    long stamp = lock.writeLock();
+    try {
+      putLocked(bookId, userId);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void putLocked(long bookId, long userId) {
+    // 上限に達したら作り直す（所有者は DB から取り直せる）
+    if (owners.size() >= maxEntries) owners.clear();
+    owners.put(bookId, userId);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    if (!event.deleted()) return;
+    long stamp = lock.writeLock();
+    try {
+      owners.remove(event.bookId());
+      deletions++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // 他ノードでの削除を取りこぼしたかもしれない
+  @EventListener
+  public void onResync(ClusterResyncEvent event) {
+    long stamp = lock.writeLock();
+    try {
+      owners.clear();
+      deletions++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.noteplace.readingsummary.book.service;
+
+import java.util.Arrays;
+
+/**
+ * long → long のオープンアドレス法（線形探索）ハッシュマップ。ボクシングなし。
+ * キー 0 は空きスロットの印なので使えない（ID は 1 以上）。スレッドセーフではない。
+ */
+final class LongLongMap {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+  private int threshold;
+
+  LongLongMap(int expected) {
+    int cap = Integer.highestOneBit(Math.max(16, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+    allocate(cap);
+  }
+
+  /** 無ければ 0。 */
+  long get(long key) {
+    int mask = keys.length - 1;
+    for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+      long k = keys[i];
+      if (k == key) return values[i];
+      if (k == 0) return 0;
+    }
+  }
+
+  void put(long key, long value) {
+    if (key == 0) throw new IllegalArgumentException("key must not be 0");
+    int mask = keys.length - 1;
+    int i = slot(key, mask);
+    for (; keys[i] != 0; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > threshold) rehash(keys.length << 1);
+  }
+
+  void remove(long key) {
+    int mask = keys.length - 1;
+    int i = slot(key, mask);
+    while (keys[i] != key) {
+      if (keys[i] == 0) return;
+      i = (i + 1) & mask;
+    }
+    // 後ろの要素を詰め直す（墓標を使わない削除）
+    int gap = i;
+    for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+      int home = slot(keys[j], mask);
+      // home が (gap, j] の外にあれば gap に移せる
+      if (((j - home) & mask) >= ((j - gap) & mask)) {
+        keys[gap] = keys[j];
+        values[gap] = values[j];
+        gap = j;
+      }
+    }
+    keys[gap] = 0;
+    values[gap] = 0;
+    size--;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    Arrays.fill(keys, 0);
+    Arrays.fill(values, 0);
+    size = 0;
+  }
+
+  private void rehash(int cap) {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate(cap);
+    int mask = cap - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      long k = oldKeys[i];
+      if (k == 0) continue;
+      int j = slot(k, mask);
+      while (keys[j] != 0) j = (j + 1) & mask;
+      keys[j] = k;
+      values[j] = oldValues[i];
+    }
+  }
+
+  private void allocate(int cap) {
+    keys = new long[cap];
+    values = new long[cap];
+    threshold = (int) (cap * LOAD_FACTOR);
+  }
+
+  private static int slot(long key, int mask) {
+    long h = key * 0x9E3779B97F4A7C15L; // 連番 ID を散らす
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+}
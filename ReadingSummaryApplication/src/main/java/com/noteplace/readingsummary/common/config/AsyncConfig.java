@@ -0,0 +1,90 @@
+package com.noteplace.readingsummary.common.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * PDF 生成（CPU バウンド・OpenPDF 内部で synchronized が多い）はリクエストスレッドから切り離し、
+ * 上限付きのプラットフォームスレッドプールで実行する。
+ * spring.threads.virtual.enabled=true のときもキャリアスレッドを塞がない。
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+  private final int renderThreads;
+  private final int renderQueue;
+  private final int exportThreads;
+  private final int exportQueue;
+  private final int exportConcurrent;
+  private final int hashThreads;
+  private final int hashQueue;
+
+  public AsyncConfig(
+      @Value("${app.report.render-threads}") int renderThreads,
+      @Value("${app.report.render-queue}") int renderQueue,
+      @Value("${app.report.export.threads}") int exportThreads,
+      @Value("${app.report.export.queue}") int exportQueue,
+      @Value("${app.report.export.max-concurrent}") int exportConcurrent,
+      @Value("${app.auth.hash-threads}") int hashThreads,
+      @Value("${app.auth.hash-queue}") int hashQueue) {
+    this.renderThreads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+    this.renderQueue = renderQueue;
+    this.exportThreads = exportThreads > 0 ? exportThreads : Runtime.getRuntime().availableProcessors();
+    this.exportQueue = exportQueue;
+    this.exportConcurrent = exportConcurrent;
+    this.hashThreads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    this.hashQueue = hashQueue;
+  }
+
+  // 一括エクスポートの本体（ZIP を流しながら reportExportExecutor の結果を待つ）もここで動く。
+  // その本数（app.report.export.max-concurrent が上限）だけスレッドを足して、単体レポートの分を残す
+  @Bean
+  ThreadPoolTaskExecutor pdfRenderExecutor() {
+    var ex = new ThreadPoolTaskExecutor();
+    ex.setCorePoolSize(renderThreads + exportConcurrent);
+    ex.setMaxPoolSize(renderThreads + exportConcurrent);
+    ex.setQueueCapacity(renderQueue); // 溢れたら TaskRejectedException → 503
+    ex.setThreadNamePrefix("pdf-render-");
+    ex.setVirtualThreads(false);
+    return ex;
+  }
+
+  // 一括エクスポートの 1 冊ずつの生成用。エクスポート本体は pdfRenderExecutor 上で動いて
+  // ここに投げた結果を待つので、同じプールを使うと詰まる。
+  // 溢れたらエクスポート本体のスレッドで生成する（途中まで書いた ZIP を 503 で切らない）
+  @Bean
+  ThreadPoolTaskExecutor reportExportExecutor() {
+    var ex = new ThreadPoolTaskExecutor();
+    ex.setCorePoolSize(exportThreads);
+    ex.setMaxPoolSize(exportThreads);
+    ex.setQueueCapacity(exportQueue);
+    ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    ex.setThreadNamePrefix("report-export-");
+    ex.setVirtualThreads(false);
+    return ex;
+  }
+
+  // パスワードのハッシュ化・照合用。ログインが殺到しても CPU を食い尽くさないようスレッド数を絞る
+  @Bean
+  ThreadPoolTaskExecutor passwordHashExecutor() {
+    var ex = new ThreadPoolTaskExecutor();
+    ex.setCorePoolSize(hashThreads);
+    ex.setMaxPoolSize(hashThreads);
+    ex.setQueueCapacity(hashQueue); // 溢れたら TaskRejectedException → 503
+    ex.setThreadNamePrefix("password-hash-");
+    ex.setVirtualThreads(false);
+    return ex;
+  }
+
+  // StreamingResponseBody（レポートの書き出し）はこのプールで動く
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(pdfRenderExecutor());
+  }
+}
@@ -0,0 +1,44 @@
+package com.noteplace.readingsummary.common.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.noteplace.readingsummary.auth.security.JwtAuthCache;
+import com.noteplace.readingsummary.report.service.ReportCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * アプリ内キャッシュのメトリクス。
+ * HTTP（http.server.requests）・リポジトリメソッド（spring.data.repository.invocations）・
+ * HikariCP（hikaricp.connections.*）・スレッドプール（executor.*）は Spring Boot が自動で登録する。
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  MeterBinder jwtAuthCacheMetrics(JwtAuthCache cache) {
+    return registry -> {
+      FunctionCounter.builder("cache.gets", cache, JwtAuthCache::hitCount)
+          .tag("cache", "jwt").tag("result", "hit").register(registry);
+      FunctionCounter.builder("cache.gets", cache, JwtAuthCache::missCount)
+          .tag("cache", "jwt").tag("result", "miss").register(registry);
+      Gauge.builder("cache.size", cache, JwtAuthCache::size)
+          .tag("cache", "jwt").register(registry);
+    };
+  }
+
+  @Bean
+  MeterBinder reportCacheMetrics(ReportCache cache) {
+    return registry -> {
+      FunctionCounter.builder("cache.gets", cache, ReportCache::hitCount)
+          .tag("cache", "report").tag("result", "hit").register(registry);
+      FunctionCounter.builder("cache.gets", cache, ReportCache::missCount)
+          .tag("cache", "report").tag("result", "miss").register(registry);
+      Gauge.builder("cache.bytes", cache, ReportCache::totalBytes)
+          .tag("cache", "report").baseUnit("bytes").register(registry);
+    };
+  }
+}
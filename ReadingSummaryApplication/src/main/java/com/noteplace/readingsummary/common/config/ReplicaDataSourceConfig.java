@@ -0,0 +1,72 @@
+package com.noteplace.readingsummary.common.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.noteplace.readingsummary.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * プライマリ（spring.datasource.*）とレプリカ（app.datasource.replica.*）の 2 プールを作り、
+ * 読み取り専用トランザクションをレプリカへ回す。無効のときは Spring Boot の既定の DataSource のまま。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  HikariDataSource primaryDataSource(DataSourceProperties props) {
+    HikariDataSource ds = props.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    ds.setPoolName("primary");
+    return ds;
+  }
+
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  HikariDataSource replicaDataSource(DataSourceProperties props,
+                                     @Value("${app.datasource.replica.url}") String url,
+                                     @Value("${app.datasource.replica.username}") String username,
+                                     @Value("${app.datasource.replica.password}") String password) {
+    HikariDataSource ds = DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .driverClassName(props.determineDriverClassName())
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+    ds.setPoolName("replica");
+    ds.setReadOnly(true);
+    return ds;
+  }
+
+  @Bean
+  ReplicaRoutingDataSource replicaRoutingDataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      @Value("${app.datasource.replica.max-lag}") Duration maxLag,
+      @Value("${app.datasource.replica.read-your-writes}") Duration readYourWrites) {
+    // 遅延が max-lag 以内なら、それより前の書き込みはレプリカに届いている。
+    // read-your-writes を max-lag より短くすると自分の書き込みが見えない隙間ができるので切り上げる
+    return new ReplicaRoutingDataSource(primary, replica, readYourWrites.compareTo(maxLag) < 0 ? maxLag : readYourWrites);
+  }
+
+  // JPA・Flyway・JdbcTemplate はこれを使う
+  @Bean
+  @Primary
+  DataSource dataSource(ReplicaRoutingDataSource routing) {
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
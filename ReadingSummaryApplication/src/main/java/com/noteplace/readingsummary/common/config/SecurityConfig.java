@@ -2,7 +2,12 @@ package com.noteplace.readingsummary.common.config;
 
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,8 +23,11 @@ import com.noteplace.readingsummary.auth.security.JwtAuthFilter;
 @Configuration
 public class SecurityConfig {
 
+  // コストを上げると、既存ユーザーのハッシュは次のログインで作り直される（AuthService）
   @Bean
-  PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+  PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt-strength}") int strength) {
+    return new BCryptPasswordEncoder(strength);
+  }
 
   @Bean
   SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter,
@@ -36,7 +44,11 @@ public class SecurityConfig {
         return c;
       }))
       .authorizeHttpRequests(auth -> auth
+        // STATELESS なので ERROR/ASYNC ディスパッチには認証が残らない。元のリクエストで認可済み
+        .dispatcherTypeMatchers(DispatcherType.ERROR, DispatcherType.ASYNC).permitAll()
         .requestMatchers("/api/auth/**").permitAll()
+        // 管理ポート（management.server.port）でのみ公開される
+        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
         .anyRequest().authenticated()
       )
       .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
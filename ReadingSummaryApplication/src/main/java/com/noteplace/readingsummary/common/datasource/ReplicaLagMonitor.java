@@ -0,0 +1,83 @@
+package com.noteplace.readingsummary.common.datasource;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * レプリカの遅延を定期的に測り、max-lag を超えたら（または繋がらなければ）読み取りをプライマリへ戻す。
+ * 確認が止まったり遅れたりしても（スケジューラが詰まった等）、古い結果のままレプリカを使い続けない。
+ * 書き込みの記録（read-your-writes）もここで受ける。他ノードでの書き込みも ClusterEventBus 経由で届く。
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+  // レプリカでなければ（スキーマを分けただけの検証環境など）遅延 0。受信済みの WAL を再生し終えていれば 0
+  private static final String LAG_SQL = """
+    select case
+      when not pg_is_in_recovery() then 0
+      when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+      else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+    end
+    """;
+
+  private final ReplicaRoutingDataSource routing;
+  private final JdbcTemplate replicaJdbc;
+  private final long maxLagMillis;
+
+  private volatile long lagMillis = -1;
+
+  public ReplicaLagMonitor(ReplicaRoutingDataSource routing,
+                           @Qualifier("replicaDataSource") DataSource replica,
+                           @Value("${app.datasource.replica.max-lag}") Duration maxLag,
+                           MeterRegistry meters) {
+    this.routing = routing;
+    this.replicaJdbc = new JdbcTemplate(replica);
+    this.maxLagMillis = maxLag.toMillis();
+    Gauge.builder("datasource.replica.lag", this, m -> m.lagMillis).baseUnit("milliseconds").register(meters);
+  }
+
+  @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval}")
+  public void check() {
+    long checkedAt = System.currentTimeMillis();
+    try {
+      Double seconds = replicaJdbc.queryForObject(LAG_SQL, Double.class);
+      lagMillis = Math.round(seconds * 1000);
+    } catch (DataAccessException e) {
+      lagMillis = -1;
+      log.warn("replica lag check failed", e);
+    }
+
+    boolean usable = lagMillis >= 0 && lagMillis <= maxLagMillis;
+    if (usable != routing.isReplicaUsable()) {
+      log.info("replica {} (lag {} ms)", usable ? "enabled" : "disabled", lagMillis);
+    }
+    // 測ったあと遅延は最大で経過時間ぶん増えるので、max-lag に届きうる時刻までしか信じない
+    routing.setReplicaUsableUntil(usable ? checkedAt + maxLagMillis - lagMillis : 0);
+    routing.purgeExpiredWrites();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    routing.recordWrite(event.userId());
+  }
+}
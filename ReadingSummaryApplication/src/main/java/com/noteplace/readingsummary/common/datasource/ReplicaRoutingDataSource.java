@@ -0,0 +1,84 @@
+package com.noteplace.readingsummary.common.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+
+/**
+ * 読み取り専用トランザクションをレプリカへ、それ以外をプライマリへ振り分ける。
+ * 読み取りでも次の場合はプライマリ：
+ * <ul>
+ *   <li>レプリカが使えない（遅延が max-lag 超え・接続失敗・確認が途絶えた。ReplicaLagMonitor が判定）</li>
+ *   <li>書き込みリクエスト（GET/HEAD 以外）の中</li>
+ *   <li>そのユーザーが read-your-writes 期間内に書き込んでいる</li>
+ * </ul>
+ * 接続を取る時点で判定するので、LazyConnectionDataSourceProxy 越しに使う
+ * （トランザクションの readOnly が決まってから実際の接続を取らせるため）。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target { PRIMARY, REPLICA }
+
+  private final long readYourWritesMillis;
+  private final ConcurrentHashMap<Long, Long> lastWriteMillis = new ConcurrentHashMap<>();
+  private volatile long replicaUsableUntilMillis;
+
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites) {
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    this.readYourWritesMillis = readYourWrites.toMillis();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!isReplicaUsable() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Target.PRIMARY;
+    if (inWriteRequest()) return Target.PRIMARY;
+
+    Long userId = currentUserId();
+    if (userId != null) {
+      Long last = lastWriteMillis.get(userId);
+      if (last != null && System.currentTimeMillis() - last < readYourWritesMillis) return Target.PRIMARY;
+    }
+    return Target.REPLICA;
+  }
+
+  public boolean isReplicaUsable() {
+    return System.currentTimeMillis() < replicaUsableUntilMillis;
+  }
+
+  /** この時刻（epoch ms）までレプリカを使う。次の確認で延ばされなければ、過ぎた時点でプライマリへ戻る。 */
+  public void setReplicaUsableUntil(long untilMillis) {
+    this.replicaUsableUntilMillis = untilMillis;
+  }
+
+  public void recordWrite(Long userId) {
+    lastWriteMillis.put(userId, System.currentTimeMillis());
+  }
+
+  public void purgeExpiredWrites() {
+    long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+    lastWriteMillis.values().removeIf(t -> t < cutoff);
+  }
+
+  private static boolean inWriteRequest() {
+    if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) return false;
+    String method = attrs.getRequest().getMethod();
+    return !"GET".equals(method) && !"HEAD".equals(method);
+  }
+
+  private static Long currentUserId() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return (auth != null && auth.getPrincipal() instanceof AuthUser u) ? u.id() : null;
+  }
+}
@@ -2,18 +2,33 @@ package com.noteplace.readingsummary.common.error;
 
 import java.util.Optional;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
 private String traceId() { return Optional.ofNullable(MDC.get("traceId")).orElse("-"); }
 
+// ストリーミング中（コミット済み）は本文を差し替えられない。ここで書くと途中まで送った本文に JSON が付いた 200 になる。
+// 投げ直して DispatcherServlet からコンテナまで出し、接続を切らせる
+private static void abortIfCommitted(HttpServletResponse res, Exception ex) {
+ if (!res.isCommitted()) return;
+ var abort = new IllegalStateException("response already committed, aborting");
+ abort.addSuppressed(ex);
+ throw abort;
+}
+
 @ExceptionHandler(MethodArgumentNotValidException.class)
 public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex) {
  String msg = ex.getBindingResult().getFieldErrors().stream()
@@ -26,8 +41,24 @@ public ResponseEntity<ApiError> handleDenied(AccessDeniedException ex) {
  return ResponseEntity.status(403).body(new ApiError("ACCESS_DENIED", "forbidden", traceId()));
 }
 
+@ExceptionHandler(ResponseStatusException.class)
+public ResponseEntity<ApiError> handleStatus(ResponseStatusException ex) {
+ HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+ String code = status != null ? status.name() : String.valueOf(ex.getStatusCode().value());
+ return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders())
+   .body(new ApiError(code, Optional.ofNullable(ex.getReason()).orElse(code), traceId()));
+}
+
+@ExceptionHandler(TaskRejectedException.class)
+public ResponseEntity<ApiError> handleRejected(TaskRejectedException ex, HttpServletResponse res) {
+ abortIfCommitted(res, ex);
+ return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+   .body(new ApiError("BUSY", "server is busy, retry later", traceId()));
+}
+
 @ExceptionHandler(Exception.class)
-public ResponseEntity<ApiError> handleAny(Exception ex) {
+public ResponseEntity<ApiError> handleAny(Exception ex, HttpServletResponse res) {
+ abortIfCommitted(res, ex);
  return ResponseEntity.status(500).body(new ApiError("INTERNAL_ERROR", "unexpected error", traceId()));
 }
 }
@@ -0,0 +1,19 @@
+package com.noteplace.readingsummary.common.event;
+
+/**
+ * 本・要約・セッションの書き込みで発行する。レポートキャッシュ等の無効化に使う。
+ * deleted は本そのものが削除されたとき true。
+ * remote は他ノードでの書き込みを ClusterEventBus が中継したもの（このノードのキャッシュは更新されていない）。
+ */
+public record BookChangedEvent(Entity entity, Long userId, Long bookId, boolean deleted, boolean remote) {
+
+  public enum Entity { BOOK, SUMMARY, SESSION }
+
+  public static BookChangedEvent changed(Entity entity, Long userId, Long bookId) {
+    return new BookChangedEvent(entity, userId, bookId, false, false);
+  }
+
+  public static BookChangedEvent deleted(Long userId, Long bookId) {
+    return new BookChangedEvent(Entity.BOOK, userId, bookId, true, false);
+  }
+}
@@ -0,0 +1,120 @@
+package com.noteplace.readingsummary.common.event;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noteplace.readingsummary.common.event.BookChangedEvent.Entity;
+
+/**
+ * BookChangedEvent を PostgreSQL の NOTIFY で他ノードへ中継する。
+ * pg_notify は発行元のトランザクションに乗るので、届くのはコミットされた変更だけ。
+ * 受信側は専用コネクション（プールから 1 本占有）で LISTEN し、自ノード発を除いて remote として再発行する。
+ * 切断中に発行された通知は失われるので、LISTEN するたびに ClusterResyncEvent を発行してキャッシュを捨てさせる。
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.events.enabled", havingValue = "true")
+public class ClusterEventBus {
+
+  private static final Logger log = LoggerFactory.getLogger(ClusterEventBus.class);
+
+  static final String CHANNEL = "book_changed";
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+  private record Message(String node, Entity entity, Long userId, Long bookId, boolean deleted) {}
+
+  private final JdbcTemplate jdbc;
+  private final DataSource dataSource;
+  private final ApplicationEventPublisher events;
+  private final ObjectMapper mapper;
+  private final int pollMillis;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private volatile boolean running;
+  private Thread listener;
+
+  public ClusterEventBus(JdbcTemplate jdbc, DataSource dataSource, ApplicationEventPublisher events, ObjectMapper mapper,
+                         @Value("${app.cluster.events.poll-millis}") int pollMillis) {
+    this.jdbc = jdbc;
+    this.dataSource = dataSource;
+    this.events = events;
+    this.mapper = mapper;
+    this.pollMillis = pollMillis;
+  }
+
+  @EventListener
+  public void publish(BookChangedEvent e) throws JsonProcessingException {
+    if (e.remote()) return;
+    String payload = mapper.writeValueAsString(new Message(nodeId, e.entity(), e.userId(), e.bookId(), e.deleted()));
+    jdbc.queryForList("select pg_notify(?, ?)", CHANNEL, payload);
+  }
+
+  @PostConstruct
+  void start() {
+    running = true;
+    listener = Thread.ofPlatform().name("cluster-events").daemon().start(this::listen);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    listener.interrupt();
+    listener.join(pollMillis * 2L);
+  }
+
+  private void listen() {
+    long backoff = 1000;
+    while (running) {
+      try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+        st.execute("LISTEN " + CHANNEL);
+        PGConnection pg = conn.unwrap(PGConnection.class);
+        backoff = 1000;
+        events.publishEvent(new ClusterResyncEvent());
+        while (running) {
+          PGNotification[] received = pg.getNotifications(pollMillis);
+          if (received == null) continue;
+          for (PGNotification n : received) receive(n.getParameter());
+        }
+      } catch (SQLException e) {
+        if (!running) return;
+        log.warn("cluster event listener disconnected; retrying in {} ms", backoff, e);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException ie) {
+          return;
+        }
+        backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+      }
+    }
+  }
+
+  private void receive(String payload) {
+    try {
+      Message m = mapper.readValue(payload, Message.class);
+      if (nodeId.equals(m.node())) return;
+      events.publishEvent(new BookChangedEvent(m.entity(), m.userId(), m.bookId(), m.deleted(), true));
+    } catch (JsonProcessingException | RuntimeException e) {
+      // 1 件の失敗で受信スレッドを止めない
+      log.warn("failed to handle cluster event {}", payload, e);
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.noteplace.readingsummary.common.event;
+
+/**
+ * ClusterEventBus が LISTEN を張り直したときに発行する。
+ * 切断中に他ノードで発行された BookChangedEvent は届いていないので、それを前提にしたキャッシュは全部捨てる。
+ */
+public record ClusterResyncEvent() {}
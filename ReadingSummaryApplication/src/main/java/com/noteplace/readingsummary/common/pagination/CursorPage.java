@@ -0,0 +1,21 @@
+package com.noteplace.readingsummary.common.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * キーセットページングの 1 ページ。next が null なら最後のページ。
+ */
+public record CursorPage<T>(List<T> items, String next) {
+
+  /**
+   * limit + 1 件取得した結果から 1 ページを作る（余分の 1 件で次ページの有無を判定する）。
+   */
+  public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+    if (fetched.size() <= limit) {
+      return new CursorPage<>(fetched, null);
+    }
+    List<T> items = fetched.subList(0, limit);
+    return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+  }
+}
@@ -0,0 +1,60 @@
+package com.noteplace.readingsummary.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 不透明カーソル（キー列を '|' で連結して base64url にしたもの）の組み立てと分解。
+ */
+public final class Cursors {
+
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 200;
+
+  private Cursors() {}
+
+  public static String encode(Object... keys) {
+    var sb = new StringBuilder();
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) sb.append('|');
+      sb.append(keys[i] == null ? "" : keys[i]);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** expected 個のキーに分解する。形式が違えば 400。 */
+  public static String[] decode(String cursor, int expected) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] keys = raw.split("\\|", -1);
+      if (keys.length != expected) throw new IllegalArgumentException();
+      return keys;
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+    }
+  }
+
+  /** キー 1 つを変換する。壊れていれば 400。 */
+  public static <T> T parse(String key, Function<String, T> parser) {
+    try {
+      return parser.apply(key);
+    } catch (RuntimeException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+    }
+  }
+
+  /** limit を 1..MAX_LIMIT に丸める。 */
+  public static int clamp(int limit) {
+    return Math.max(1, Math.min(limit, MAX_LIMIT));
+  }
+
+  /** 次ページ判定用に 1 件多く取る。 */
+  public static Limit fetchLimit(int limit) {
+    return Limit.of(limit + 1);
+  }
+}
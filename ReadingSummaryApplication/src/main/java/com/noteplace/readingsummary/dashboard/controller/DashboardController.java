@@ -1,12 +1,18 @@
 package com.noteplace.readingsummary.dashboard.controller;
 
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.noteplace.readingsummary.auth.security.AuthUser;
 import com.noteplace.readingsummary.dashboard.dto.DashboardResponse;
+import com.noteplace.readingsummary.dashboard.dto.HeatmapResponse;
+import com.noteplace.readingsummary.dashboard.dto.ReadingAnalyticsResponse;
 import com.noteplace.readingsummary.dashboard.service.DashboardService;
 
 @RestController
@@ -23,4 +29,20 @@ public class DashboardController {
   public DashboardResponse get(@AuthenticationPrincipal AuthUser user) {
     return dashboardService.getDashboard(user.id());
   }
+
+  @GetMapping("/heatmap")
+  public HeatmapResponse heatmap(@AuthenticationPrincipal AuthUser user, @RequestParam int year) {
+    return dashboardService.getHeatmap(user.id(), year);
+  }
+
+  // 期間の読書量（bucket = day / week / month）と本別の内訳
+  @GetMapping("/analytics")
+  public ReadingAnalyticsResponse analytics(
+      @AuthenticationPrincipal AuthUser user,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "week") String bucket
+  ) {
+    return dashboardService.getAnalytics(user.id(), from, to, bucket);
+  }
 }
@@ -0,0 +1,10 @@
+package com.noteplace.readingsummary.dashboard.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record HeatmapResponse(
+    int year,
+    int daysRead,
+    List<LocalDate> days
+) {}
@@ -0,0 +1,23 @@
+package com.noteplace.readingsummary.dashboard.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 期間 [from, to] の読書量。series は bucket ごと（読んでいないバケットも 0 で埋める）、books は本ごと（分数の多い順）。
+ * pagesPerHour はページ数の記録があるセッションだけで計算し、該当が無ければ null。
+ */
+public record ReadingAnalyticsResponse(
+    LocalDate from,
+    LocalDate to,
+    String bucket,
+    Totals total,
+    List<Point> series,
+    List<BookTotals> books
+) {
+  public record Totals(long minutes, long pages, long sessions, Double pagesPerHour) {}
+
+  public record Point(LocalDate start, long minutes, long pages, long sessions, Double pagesPerHour) {}
+
+  public record BookTotals(Long bookId, String title, long minutes, long pages, long sessions, Double pagesPerHour) {}
+}
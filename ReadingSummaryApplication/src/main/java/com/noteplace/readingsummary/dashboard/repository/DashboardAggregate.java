@@ -0,0 +1,13 @@
+package com.noteplace.readingsummary.dashboard.repository;
+
+/**
+ * ダッシュボード用の集計結果（1 行）。エンティティではなく projection で受ける。
+ */
+public interface DashboardAggregate {
+  long getTotalBooks();
+  long getUnreadBooks();
+  long getReadingBooks();
+  long getDoneBooks();
+  long getTotalSummaries();
+  long getThisMonthMinutes();
+}
@@ -0,0 +1,38 @@
+package com.noteplace.readingsummary.dashboard.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.noteplace.readingsummary.book.domain.Book;
+
+public interface DashboardRepository extends Repository<Book, Long> {
+
+  // ステータス別件数・今月の読書分数・要約数を 1 文でまとめて取る
+  @Query(nativeQuery = true, value = """
+    select
+      count(*)                                        as "totalBooks",
+      count(*) filter (where b.status = 'UNREAD')     as "unreadBooks",
+      count(*) filter (where b.status = 'READING')    as "readingBooks",
+      count(*) filter (where b.status = 'DONE')       as "doneBooks",
+      (select count(*)
+         from summaries s
+         join books sb on sb.id = s.book_id
+        where sb.user_id = :userId)                   as "totalSummaries",
+      (select coalesce(sum(rs.minutes), 0)
+         from reading_sessions rs
+         join books rb on rb.id = rs.book_id
+        where rb.user_id = :userId
+          and rs.session_date >= :start
+          and rs.session_date < :end)                 as "thisMonthMinutes"
+    from books b
+    where b.user_id = :userId
+  """)
+  DashboardAggregate aggregate(
+      @Param("userId") Long userId,
+      @Param("start") LocalDate start,
+      @Param("end") LocalDate end
+  );
+}
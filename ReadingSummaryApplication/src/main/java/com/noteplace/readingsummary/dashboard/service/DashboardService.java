@@ -1,76 +1,184 @@
 package com.noteplace.readingsummary.dashboard.service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.ZoneId;
-import java.util.HashSet;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.noteplace.readingsummary.book.repository.BookRepository;
 import com.noteplace.readingsummary.dashboard.dto.DashboardResponse;
-import com.noteplace.readingsummary.session.repository.ReadingSessionRepository;
-import com.noteplace.readingsummary.summary.repository.SummaryRepository;
+import com.noteplace.readingsummary.dashboard.dto.HeatmapResponse;
+import com.noteplace.readingsummary.dashboard.dto.ReadingAnalyticsResponse;
+import com.noteplace.readingsummary.dashboard.dto.ReadingAnalyticsResponse.BookTotals;
+import com.noteplace.readingsummary.dashboard.dto.ReadingAnalyticsResponse.Point;
+import com.noteplace.readingsummary.dashboard.dto.ReadingAnalyticsResponse.Totals;
+import com.noteplace.readingsummary.stats.domain.ReadingCalendar;
+import com.noteplace.readingsummary.stats.domain.UserReadingStats;
+import com.noteplace.readingsummary.stats.repository.ReadingDailyRollupRepository;
+import com.noteplace.readingsummary.stats.repository.RollupTotalsRow;
+import com.noteplace.readingsummary.stats.service.ReadingCalendarService;
+import com.noteplace.readingsummary.stats.service.ReadingStatsService;
 
 @Service
 public class DashboardService {
 
-  private final BookRepository bookRepo;
-  private final ReadingSessionRepository sessionRepo;
-  private final SummaryRepository summaryRepo;
+  private final ReadingStatsService statsService;
+  private final ReadingCalendarService calendarService;
+  private final ReadingDailyRollupRepository rollupRepo;
+
+  // 分析 API の 1 回あたりのバケット数の上限
+  private static final int MAX_BUCKETS = 1000;
+  // ヒートマップで受け付ける年（範囲外は LocalDate が例外を投げて 500 になる）
+  private static final int MIN_YEAR = 1;
+  private static final int MAX_YEAR = 9999;
+
+  private enum Bucket { DAY, WEEK, MONTH }
 
   // ユーザーが日本（Asia/Tokyo）前提なので、streak判定は東京日付に寄せます
   private final ZoneId zone = ZoneId.of("Asia/Tokyo");
 
 
-  public DashboardService(BookRepository bookRepo, ReadingSessionRepository sessionRepo, SummaryRepository summaryRepo) {
-    this.bookRepo = bookRepo;
-    this.sessionRepo = sessionRepo;
-    this.summaryRepo = summaryRepo;
+  public DashboardService(ReadingStatsService statsService, ReadingCalendarService calendarService,
+                          ReadingDailyRollupRepository rollupRepo) {
+    this.statsService = statsService;
+    this.calendarService = calendarService;
+    this.rollupRepo = rollupRepo;
   }
 
   public DashboardResponse getDashboard(Long userId) {
     LocalDate today = LocalDate.now(zone);
+    LocalDate startOfMonth = YearMonth.from(today).atDay(1);
 
-    // 今月の範囲 [start, end)
-    YearMonth ym = YearMonth.from(today);
-    LocalDate startOfMonth = ym.atDay(1);
-    LocalDate startOfNextMonth = ym.plusMonths(1).atDay(1);
+    // 件数系は集計済みの 1 行を読むだけ（無ければその場で作る）
+    UserReadingStats s = statsService.get(userId);
 
-    long thisMonthMinutes = sessionRepo.sumMinutesByUserIdBetween(userId, startOfMonth, startOfNextMonth);
+    // 読んだ日はビットマップから求める
+    ReadingCalendar cal = calendarService.get(userId);
+    int streak = cal.streakEndingAt(today);
+    int thisMonthReadingDays = cal.countDays(startOfMonth, today);
 
-    // streak計算用に、直近1年分の「読んだ日」を取る
-    LocalDate startForStreak = today.minusDays(365);
-    List<LocalDate> days = sessionRepo.findDistinctSessionDatesByUserIdBetween(userId, startForStreak, today);
-    var set = new HashSet<>(days);
-
-    int streak = 0;
-    for (LocalDate d = today; ; d = d.minusDays(1)) {
-      if (set.contains(d)) streak++;
-      else break;
-    }
+    // month_minutes は別の月の値なら 0
+    boolean sameMonth = startOfMonth.equals(s.getMonthStart());
 
-    // 今月の読書日数（distinct days）
-    int thisMonthReadingDays = sessionRepo
-        .findDistinctSessionDatesByUserIdBetween(userId, startOfMonth, today)
-        .size();
-
-    long totalBooks = bookRepo.countByUserId(userId);
-    long unreadBooks = bookRepo.countByUserIdAndStatus(userId, "UNREAD");
-    long readingBooks = bookRepo.countByUserIdAndStatus(userId, "READING");
-    long doneBooks = bookRepo.countByUserIdAndStatus(userId, "DONE");
-    long totalSummaries = summaryRepo.countSummariesByUserId(userId);
-    
     return new DashboardResponse(
         streak,
-        thisMonthMinutes,
+        sameMonth ? s.getMonthMinutes() : 0,
         thisMonthReadingDays,
-        totalBooks,
-        unreadBooks,
-        readingBooks,
-        doneBooks,
-        totalSummaries
+        s.getTotalBooks(),
+        s.getUnreadBooks(),
+        s.getReadingBooks(),
+        s.getDoneBooks(),
+        s.getTotalSummaries()
     );
   }
+
+  public HeatmapResponse getHeatmap(Long userId, int year) {
+    if (year < MIN_YEAR || year > MAX_YEAR) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "year must be " + MIN_YEAR + ".." + MAX_YEAR);
+    }
+    long[] words = calendarService.get(userId).yearWords(year);
+
+    List<LocalDate> days = new ArrayList<>();
+    LocalDate jan1 = LocalDate.ofYearDay(year, 1);
+    for (int wi = 0; wi < words.length; wi++) {
+      long w = words[wi];
+      while (w != 0) {
+        int bit = Long.numberOfTrailingZeros(w);
+        days.add(jan1.plusDays(wi * 64L + bit));
+        w &= w - 1;
+      }
+    }
+    return new HeatmapResponse(year, days.size(), days);
+  }
+
+  /**
+   * reading_daily_rollups だけから集計する。from / to を省略すると、to は今日、
+   * from はバケットに応じて直近 30 日・12 週・12 か月の始まり。
+   */
+  public ReadingAnalyticsResponse getAnalytics(Long userId, LocalDate from, LocalDate to, String bucket) {
+    Bucket b = parseBucket(bucket);
+    if (to == null) to = LocalDate.now(zone);
+    if (from == null) {
+      from = switch (b) {
+        case DAY -> to.minusDays(29);
+        case WEEK -> bucketStart(b, to).minusWeeks(11);
+        case MONTH -> bucketStart(b, to).minusMonths(11);
+      };
+    }
+    if (from.isAfter(to)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be <= to");
+    }
+    ChronoUnit unit = switch (b) {
+      case DAY -> ChronoUnit.DAYS;
+      case WEEK -> ChronoUnit.WEEKS;
+      case MONTH -> ChronoUnit.MONTHS;
+    };
+    if (unit.between(bucketStart(b, from), to) >= MAX_BUCKETS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "range too large for bucket " + bucket);
+    }
+
+    // 読んでいないバケットも 0 で埋める
+    Map<LocalDate, RollupTotalsRow> byBucket = new HashMap<>();
+    for (RollupTotalsRow r : rollupRepo.sumByBucket(userId, b.name().toLowerCase(Locale.ROOT), from, to)) {
+      byBucket.put(r.getBucket(), r);
+    }
+    List<Point> series = new ArrayList<>();
+    long minutes = 0, pages = 0, pagedMinutes = 0, sessions = 0;
+    for (LocalDate d = bucketStart(b, from); !d.isAfter(to); d = d.plus(1, unit)) {
+      RollupTotalsRow r = byBucket.get(d);
+      if (r == null) {
+        series.add(new Point(d, 0, 0, 0, null));
+        continue;
+      }
+      series.add(new Point(d, r.getMinutes(), r.getPages(), r.getSessions(), pagesPerHour(r)));
+      minutes += r.getMinutes();
+      pages += r.getPages();
+      pagedMinutes += r.getPagedMinutes();
+      sessions += r.getSessions();
+    }
+
+    List<BookTotals> books = rollupRepo.sumByBook(userId, from, to).stream()
+        .map(r -> new BookTotals(r.getBookId(), r.getBookTitle(), r.getMinutes(), r.getPages(), r.getSessions(),
+            pagesPerHour(r)))
+        .toList();
+
+    return new ReadingAnalyticsResponse(from, to, b.name().toLowerCase(Locale.ROOT),
+        new Totals(minutes, pages, sessions, pagesPerHour(pages, pagedMinutes)), series, books);
+  }
+
+  private static Bucket parseBucket(String bucket) {
+    try {
+      return Bucket.valueOf(bucket.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bucket must be day, week or month");
+    }
+  }
+
+  // date_trunc と同じ区切り（週は月曜始まり）
+  private static LocalDate bucketStart(Bucket b, LocalDate d) {
+    return switch (b) {
+      case DAY -> d;
+      case WEEK -> d.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> d.withDayOfMonth(1);
+    };
+  }
+
+  private static Double pagesPerHour(RollupTotalsRow r) {
+    return pagesPerHour(r.getPages(), r.getPagedMinutes());
+  }
+
+  // 小数 1 桁
+  private static Double pagesPerHour(long pages, long pagedMinutes) {
+    return pagedMinutes == 0 ? null : Math.round(pages * 600.0 / pagedMinutes) / 10.0;
+  }
 }
@@ -1,38 +1,146 @@
 package com.noteplace.readingsummary.report.controller;
 
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.book.domain.Book;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
 import com.noteplace.readingsummary.report.service.PdfReportService;
+import com.noteplace.readingsummary.report.service.ReportCache;
+import com.noteplace.readingsummary.report.service.ReportExportService;
 
 @RestController
 @RequestMapping("/api/books")
 public class ReportController {
 
+  private static final String EXPORT_SLOT = ReportController.class.getName() + ".exportSlot";
+
   private final PdfReportService pdfReportService;
+  private final ReportCache reportCache;
+  private final BookOwnershipCache ownership;
+  private final ReportExportService exportService;
 
-  public ReportController(PdfReportService pdfReportService) {
+  public ReportController(PdfReportService pdfReportService, ReportCache reportCache, BookOwnershipCache ownership,
+                          ReportExportService exportService) {
     this.pdfReportService = pdfReportService;
+    this.reportCache = reportCache;
+    this.ownership = ownership;
+    this.exportService = exportService;
+  }
+
+  // 全書籍のレポートを ZIP で（できた順に流す）
+  @GetMapping(value = "/reports.zip", produces = "application/zip")
+  public ResponseEntity<StreamingResponseBody> exportAll(@AuthenticationPrincipal AuthUser user, HttpServletRequest request) {
+    // 同時に流すエクスポートは上限まで（超えたら 503）。単体レポートの描画スレッドを食い尽くさないように
+    Runnable release = exportService.acquireSlot();
+    // 枠は非同期処理の終わりで返す（失敗・切断・開始できなかったときも呼ばれる）
+    WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT, new CallableProcessingInterceptor() {
+      @Override
+      public <T> void afterCompletion(NativeWebRequest req, Callable<T> task) {
+        release.run();
+      }
+    });
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reading-reports.zip\"")
+        .contentType(MediaType.parseMediaType("application/zip"))
+        .body(abortOnFailure(out -> exportService.writeZip(user.id(), out)));
   }
 
   @GetMapping(value = "/{bookId}/report.pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-  public ResponseEntity<byte[]> report(@AuthenticationPrincipal AuthUser user, @PathVariable Long bookId) {
-    byte[] pdf = pdfReportService.generate(user.id(), bookId);
+  public ResponseEntity<StreamingResponseBody> report(
+      @AuthenticationPrincipal AuthUser user,
+      @PathVariable Long bookId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    // 所有チェックは書き出し前に済ませる（404 をステータスとして返せるように）
+    ownership.ensureOwned(user.id(), bookId);
 
     // ファイル名（最低限）
     String filename = "reading-report-" + bookId + ".pdf";
     String cd = "attachment; filename=\"" + filename + "\"";
+    // ブラウザには毎回 ETag で再検証させる
+    CacheControl cc = CacheControl.noCache().cachePrivate();
+
+    // ETag は version から決まるので、キャッシュに無くても生成せずに 304 を返せる
+    long version = reportCache.version(bookId);
+    String etag = ReportCache.etag(bookId, version);
+    if (matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cc).build();
+    }
+
+    ReportCache.Entry cached = reportCache.get(bookId, version);
+    if (cached != null) {
+      byte[] pdf = cached.pdf();
+      return ResponseEntity.ok()
+          .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+          .contentType(MediaType.APPLICATION_PDF)
+          .contentLength(pdf.length)
+          .eTag(etag)
+          .cacheControl(cc)
+          .body(out -> out.write(pdf));
+    }
 
+    Book book = pdfReportService.findOwnBook(user.id(), bookId);
+    // フォントとデータは本文を返す前に揃える（ここでの失敗はそのまま 500 になる）
+    var prepared = pdfReportService.prepare(book);
+
+    // ミス時はストリーミングしながら写しを取り、書き終えたらキャッシュに載せる
     return ResponseEntity.ok()
         .header(HttpHeaders.CONTENT_DISPOSITION, cd)
         .contentType(MediaType.APPLICATION_PDF)
-        .body(pdf);
+        .eTag(etag)
+        .cacheControl(cc)
+        .body(abortOnFailure(out -> {
+          var capture = reportCache.capture(out);
+          prepared.writeTo(capture);
+          byte[] pdf = capture.captured();
+          if (pdf != null) reportCache.put(bookId, version, pdf);
+        }));
+  }
+
+  // 書き出し途中の失敗は IOException にして、途中で切れた 200 ではなく接続断にする。
+  // ResponseStatusException のままだと、コミット済みの応答では MVC のエラー処理が握りつぶして正常終了してしまう
+  private static StreamingResponseBody abortOnFailure(StreamingResponseBody body) {
+    return out -> {
+      try {
+        body.writeTo(out);
+      } catch (RuntimeException e) {
+        throw new IOException("report streaming failed", e);
+      }
+    };
+  }
+
+  // If-None-Match は弱い比較（W/ の有無を無視する）
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) return false;
+    String opaque = opaque(etag);
+    for (String tag : ifNoneMatch.split(",")) {
+      String t = tag.trim();
+      if (t.equals("*") || opaque(t).equals(opaque)) return true;
+    }
+    return false;
+  }
+
+  private static String opaque(String tag) {
+    return tag.startsWith("W/") ? tag.substring(2) : tag;
   }
 }
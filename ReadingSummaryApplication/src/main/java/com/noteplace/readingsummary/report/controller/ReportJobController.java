@@ -0,0 +1,88 @@
+package com.noteplace.readingsummary.report.controller;
+
+import java.net.URI;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.report.dto.ReportJobResponse;
+import com.noteplace.readingsummary.report.service.ReportJob;
+import com.noteplace.readingsummary.report.service.ReportJobService;
+
+@RestController
+@RequestMapping("/api")
+public class ReportJobController {
+
+  private final ReportJobService reportJobService;
+
+  public ReportJobController(ReportJobService reportJobService) {
+    this.reportJobService = reportJobService;
+  }
+
+  @PostMapping("/books/{bookId}/report-jobs")
+  public ResponseEntity<ReportJobResponse> submit(@AuthenticationPrincipal AuthUser user, @PathVariable Long bookId) {
+    ReportJob job = reportJobService.submit(user.id(), bookId);
+    return ResponseEntity.accepted()
+        .location(URI.create(statusUrl(job)))
+        .body(toRes(job));
+  }
+
+  @GetMapping("/report-jobs/{jobId}")
+  public ResponseEntity<ReportJobResponse> status(@AuthenticationPrincipal AuthUser user, @PathVariable String jobId) {
+    ReportJob job = reportJobService.find(user.id(), jobId);
+    if (job.getStatus() == ReportJob.Status.DONE) {
+      // 完了していればダウンロード先へ誘導する
+      return ResponseEntity.status(HttpStatus.SEE_OTHER)
+          .location(URI.create(downloadUrl(job)))
+          .body(toRes(job));
+    }
+    return ResponseEntity.ok(toRes(job));
+  }
+
+  @GetMapping(value = "/report-jobs/{jobId}/download", produces = MediaType.APPLICATION_PDF_VALUE)
+  public ResponseEntity<Resource> download(@AuthenticationPrincipal AuthUser user, @PathVariable String jobId) {
+    ReportJob job = reportJobService.find(user.id(), jobId);
+    if (job.getStatus() != ReportJob.Status.DONE) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "report not ready");
+    }
+
+    String filename = "reading-report-" + job.getBookId() + ".pdf";
+    String cd = "attachment; filename=\"" + filename + "\"";
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+        .contentType(MediaType.APPLICATION_PDF)
+        .body(new FileSystemResource(job.getFile()));
+  }
+
+  private static String statusUrl(ReportJob job) {
+    return "/api/report-jobs/" + job.getId();
+  }
+
+  private static String downloadUrl(ReportJob job) {
+    return statusUrl(job) + "/download";
+  }
+
+  private static ReportJobResponse toRes(ReportJob job) {
+    return new ReportJobResponse(
+        job.getId(),
+        job.getBookId(),
+        job.getStatus().name(),
+        job.getCreatedAt(),
+        job.getFinishedAt(),
+        job.getStatus() == ReportJob.Status.DONE ? downloadUrl(job) : null
+    );
+  }
+}
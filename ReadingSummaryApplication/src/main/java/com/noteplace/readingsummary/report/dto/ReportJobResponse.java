@@ -0,0 +1,12 @@
+package com.noteplace.readingsummary.report.dto;
+
+import java.time.Instant;
+
+public record ReportJobResponse(
+    String jobId,
+    Long bookId,
+    String status,       // PENDING / RUNNING / DONE / FAILED
+    Instant createdAt,
+    Instant finishedAt,
+    String downloadUrl   // DONE のときのみ
+) {}
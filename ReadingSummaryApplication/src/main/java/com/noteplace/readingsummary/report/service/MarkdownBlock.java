@@ -0,0 +1,15 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.util.List;
+
+/**
+ * Markdown を PDF に描くための中間表現（不変）。要約ごとにキャッシュして文書間で共有する。
+ * level は見出しレベル、または箇条書き・引用の入れ子の深さ。marker は箇条書きの記号（"•" / "1." / 続きの段落は ""）。
+ */
+public record MarkdownBlock(Kind kind, int level, String marker, List<Span> spans) {
+
+  public enum Kind { HEADING, PARAGRAPH, LIST_ITEM, QUOTE, CODE, RULE }
+
+  /** style は com.lowagie.text.Font の BOLD / ITALIC の組み合わせ。 */
+  public record Span(String text, int style, boolean code) {}
+}
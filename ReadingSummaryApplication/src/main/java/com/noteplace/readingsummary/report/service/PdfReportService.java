@@ -1,15 +1,24 @@
 package com.noteplace.readingsummary.report.service;
 
+import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.lowagie.text.Chunk;
 import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
 import com.lowagie.text.Font;
 import com.lowagie.text.PageSize;
@@ -19,38 +28,206 @@ import com.lowagie.text.pdf.BaseFont;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.draw.LineSeparator;
+import com.noteplace.readingsummary.book.domain.Book;
 import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.report.service.MarkdownBlock.Span;
+import com.noteplace.readingsummary.session.dto.BookSessionRow;
+import com.noteplace.readingsummary.session.dto.ReadingSessionResponse;
 import com.noteplace.readingsummary.session.repository.ReadingSessionRepository;
+import com.noteplace.readingsummary.summary.domain.Summary;
 import com.noteplace.readingsummary.summary.repository.SummaryRepository;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class PdfReportService {
 
+  // セッション表は 1 ページずつ取得して書き出す（巨大な本でもヒープを一定に保つ）
+  private static final int SESSION_PAGE_SIZE = 500;
+
+  // Markdown 描画
+  private static final float MD_BODY_SIZE = 10;
+  private static final float MD_INDENT = 14;
+  private static final Color MD_QUOTE_COLOR = new Color(90, 90, 90);
+  private static final Color MD_CODE_BG = new Color(242, 242, 242);
+
   private final BookRepository bookRepo;
   private final SummaryRepository summaryRepo;
   private final ReadingSessionRepository sessionRepo;
+  private final ReportFontRegistry fonts;
+  private final SummaryMarkdownCache markdownCache;
+
+  private final MeterRegistry meters;
+  private final Timer renderSucceeded;
+  private final Timer renderFailed;
+  private final DistributionSummary pdfSize;
 
-  public PdfReportService(BookRepository bookRepo, SummaryRepository summaryRepo, ReadingSessionRepository sessionRepo) {
+  public PdfReportService(BookRepository bookRepo, SummaryRepository summaryRepo, ReadingSessionRepository sessionRepo,
+                          ReportFontRegistry fonts, SummaryMarkdownCache markdownCache, MeterRegistry meters) {
     this.bookRepo = bookRepo;
     this.summaryRepo = summaryRepo;
     this.sessionRepo = sessionRepo;
+    this.fonts = fonts;
+    this.markdownCache = markdownCache;
+    this.meters = meters;
+    // セッション取得（DB）の時間も含む。DB 単体は spring.data.repository.invocations で見る
+    this.renderSucceeded = Timer.builder("report.pdf.render").tag("outcome", "success").register(meters);
+    this.renderFailed = Timer.builder("report.pdf.render").tag("outcome", "error").register(meters);
+    this.pdfSize = DistributionSummary.builder("report.pdf.size").baseUnit("bytes").register(meters);
   }
 
-  public byte[] generate(Long userId, Long bookId) {
-    var book = bookRepo.findByIdAndUserId(bookId, userId)
+  public Book findOwnBook(Long userId, Long bookId) {
+    return bookRepo.findByIdAndUserId(bookId, userId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
+  }
 
+  public byte[] generate(Long userId, Long bookId) {
+    var book = findOwnBook(userId, bookId);
+    var out = new ByteArrayOutputStream();
+    write(book, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * PDF を out に直接書き出す。out は閉じない（呼び出し側の所有）。
+   */
+  public void write(Book book, OutputStream out) {
+    prepare(book).writeTo(out);
+  }
+
+  /** 書き出すだけの状態になったレポート。 */
+  @FunctionalInterface
+  public interface PreparedReport {
+    void writeTo(OutputStream out);
+  }
+
+  /**
+   * フォント・要約・セッションの最初のページを先に解決する。
+   * ストリーミング前に呼べば、ここでの失敗は通常のエラー応答になる（途中で切れた 200 にならない）。
+   */
+  public PreparedReport prepare(Book book) {
+    try {
+      fonts.load();
+    } catch (IOException e) {
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "pdf generation failed");
+    }
+    Long bookId = book.getId();
     var summaries = summaryRepo.findByBookIdOrderByScopeAscChapterAscIdAsc(bookId);
-    var sessions = sessionRepo.findByBookIdOrderBySessionDateDescCreatedAtDesc(bookId);
+    var pages = sessionPages(bookId);
+    var first = pages.next();
+    return out -> render(book, summaries, startingWith(first, pages), out);
+  }
+
+  /**
+   * 要約を呼び出し側で取得済みの場合（一括エクスポート）。summaries は scope, chapter, id 順で渡す。
+   * セッションは prefetch に読めている分を使い、足りない分だけ 1 冊ずつページングで読む。
+   */
+  public void write(Book book, List<Summary> summaries, SessionPrefetch prefetch, OutputStream out) {
+    render(book, summaries, sessionPages(book.getId(), prefetch), out);
+  }
+
+  /**
+   * 一括エクスポートの 1 バッチ分のセッションを、冊をまたいだキーセットページングでまとめて読む。
+   * 読むのは合計 maxRows 行（を超えた最初のページ）まで。本 1 冊ごとのクエリを、たいていはバッチ 1〜数回にまとめられる。
+   */
+  public SessionPrefetch prefetchSessions(List<Long> bookIds, int maxRows) {
+    var rows = new ConcurrentHashMap<Long, List<ReadingSessionResponse>>();
+    Limit pageSize = Limit.of(SESSION_PAGE_SIZE);
+    BookSessionRow last = null;
+    int read = 0;
+    while (true) {
+      List<BookSessionRow> page = (last == null)
+          ? sessionRepo.findPageByBookIds(bookIds, pageSize)
+          : sessionRepo.findPageByBookIdsAfter(bookIds, last.bookId(), last.sessionDate(), last.id(), pageSize);
+      for (var r : page) rows.computeIfAbsent(r.bookId(), id -> new ArrayList<>()).add(r.toResponse());
+      read += page.size();
+      if (page.size() < SESSION_PAGE_SIZE) return new SessionPrefetch(rows, null);
+      last = page.get(page.size() - 1);
+      if (read >= maxRows) return new SessionPrefetch(rows, last.bookId());
+    }
+  }
 
-    try (var out = new ByteArrayOutputStream()) {
+  /**
+   * prefetchSessions の結果。本ごとに 1 回だけ取り出せる（取り出した分は手放す）。
+   * 上限で止まったときは、lastBookId より前の本は読み切り済み、lastBookId は途中まで、それより後は未読。
+   */
+  public static final class SessionPrefetch {
+    private final Map<Long, List<ReadingSessionResponse>> rows;
+    private final Long lastBookId; // null なら全冊読み切り
+
+    private SessionPrefetch(Map<Long, List<ReadingSessionResponse>> rows, Long lastBookId) {
+      this.rows = rows;
+      this.lastBookId = lastBookId;
+    }
+  }
+
+  /** セッションを 1 ページずつ返す。空のリストで終わり。 */
+  interface SessionPages {
+    List<ReadingSessionResponse> next();
+  }
+
+  SessionPages sessionPages(Long bookId, SessionPrefetch prefetch) {
+    List<ReadingSessionResponse> rows = prefetch.rows.remove(bookId);
+    int order = prefetch.lastBookId == null ? -1 : bookId.compareTo(prefetch.lastBookId);
+    if (order < 0) return startingWith(rows == null ? List.of() : rows, List::of);
+    if (order > 0) return sessionPages(bookId);
+    return startingWith(rows, sessionPagesAfter(bookId, rows.get(rows.size() - 1)));
+  }
+
+  private SessionPages sessionPages(Long bookId) {
+    return sessionPagesAfter(bookId, null);
+  }
+
+  // after の次の行から（null なら先頭から）
+  private SessionPages sessionPagesAfter(Long bookId, ReadingSessionResponse after) {
+    Limit pageSize = Limit.of(SESSION_PAGE_SIZE);
+    return new SessionPages() {
+      private ReadingSessionResponse last = after;
+      private boolean done;
+
+      @Override
+      public List<ReadingSessionResponse> next() {
+        if (done) return List.of();
+        List<ReadingSessionResponse> rows = (last == null)
+            ? sessionRepo.findPage(bookId, pageSize)
+            : sessionRepo.findPageAfter(bookId, last.sessionDate(), last.id(), pageSize);
+        done = rows.size() < SESSION_PAGE_SIZE;
+        if (!rows.isEmpty()) last = rows.get(rows.size() - 1);
+        return rows;
+      }
+    };
+  }
+
+  private static SessionPages startingWith(List<ReadingSessionResponse> first, SessionPages rest) {
+    return new SessionPages() {
+      private boolean taken;
+
+      @Override
+      public List<ReadingSessionResponse> next() {
+        if (taken) return rest.next();
+        taken = true;
+        return first;
+      }
+    };
+  }
+
+  private void render(Book book, List<Summary> summaries, SessionPages sessionPages, OutputStream out) {
+    Timer.Sample sample = Timer.start(meters);
+    var counting = new CountingOutputStream(out);
+    try {
       Document doc = new Document(PageSize.A4, 36, 36, 36, 36);
-      PdfWriter.getInstance(doc, out);
+      PdfWriter writer = PdfWriter.getInstance(doc, counting);
+      writer.setCloseStream(false);
       doc.open();
 
-      Font titleFont = new Font(loadJapaneseBaseFont(), 18, Font.BOLD);
-      Font hFont = new Font(loadJapaneseBaseFont(), 13, Font.BOLD);
-      Font bodyFont = new Font(loadJapaneseBaseFont(), 10);
+      Font titleFont = fonts.title();
+      Font hFont = fonts.heading();
+      Font chapterFont = fonts.chapter();
+      Font bodyFont = fonts.body();
+      BaseFont bf = fonts.baseFont();
 
       // Title
       doc.add(new Paragraph("Reading Report", titleFont));
@@ -68,10 +245,12 @@ public class PdfReportService {
       doc.add(new Paragraph("Summary (BOOK)", hFont));
       var bookSummary = summaries.stream()
           .filter(s -> "BOOK".equals(s.getScope()))
-          .findFirst()
-          .map(s -> s.getContentMd())
-          .orElse("(no summary)");
-      doc.add(new Paragraph(bookSummary, bodyFont));
+          .findFirst();
+      if (bookSummary.isPresent()) {
+        addMarkdown(doc, markdownCache.blocks(bookSummary.get()), bf);
+      } else {
+        doc.add(new Paragraph("(no summary)", bodyFont));
+      }
       doc.add(Chunk.NEWLINE);
 
       // Chapter summaries
@@ -81,8 +260,8 @@ public class PdfReportService {
         doc.add(new Paragraph("(no chapter summaries)", bodyFont));
       } else {
         for (var s : chapterOnes) {
-          doc.add(new Paragraph("Chapter " + s.getChapter(), new Font(loadJapaneseBaseFont(), 11, Font.BOLD)));
-          doc.add(new Paragraph(s.getContentMd(), bodyFont));
+          doc.add(new Paragraph("Chapter " + s.getChapter(), chapterFont));
+          addMarkdown(doc, markdownCache.blocks(s), bf);
           doc.add(Chunk.NEWLINE);
         }
       }
@@ -94,6 +273,8 @@ public class PdfReportService {
 
       PdfPTable table = new PdfPTable(new float[]{2, 1, 1, 4});
       table.setWidthPercentage(100);
+      table.setHeaderRows(1);
+      table.setComplete(false);
 
       addHeader(table, "Date", bodyFont);
       addHeader(table, "Min", bodyFont);
@@ -101,34 +282,100 @@ public class PdfReportService {
       addHeader(table, "Memo", bodyFont);
 
       var df = DateTimeFormatter.ISO_LOCAL_DATE;
-      for (var s : sessions) {
-        table.addCell(cell(s.getSessionDate().format(df), bodyFont));
-        table.addCell(cell(String.valueOf(s.getMinutes()), bodyFont));
-        table.addCell(cell(s.getPagesRead() == null ? "" : String.valueOf(s.getPagesRead()), bodyFont));
-        table.addCell(cell(nvl(s.getMemo()), bodyFont));
+      List<ReadingSessionResponse> rows;
+      while (!(rows = sessionPages.next()).isEmpty()) {
+        for (var s : rows) {
+          table.addCell(cell(s.sessionDate().format(df), bodyFont));
+          table.addCell(cell(String.valueOf(s.minutes()), bodyFont));
+          table.addCell(cell(s.pagesRead() == null ? "" : String.valueOf(s.pagesRead()), bodyFont));
+          table.addCell(cell(nvl(s.memo()), bodyFont));
+        }
+        // 未完了のテーブルを add すると確定済みの行だけ書き出して手放す
+        doc.add(table);
       }
 
+      table.setComplete(true);
       doc.add(table);
 
       doc.close();
-      return out.toByteArray();
+      sample.stop(renderSucceeded);
+      pdfSize.record(counting.count);
     } catch (Exception e) {
+      sample.stop(renderFailed);
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "pdf generation failed");
     }
   }
 
-  private BaseFont loadJapaneseBaseFont() throws Exception {
-    // フォント埋め込み（日本語対応）
-    var res = new ClassPathResource("fonts/NotoSansJP-Regular.ttf");
-    byte[] bytes = res.getInputStream().readAllBytes();
-    return BaseFont.createFont(
-        "NotoSansJP-Regular.ttf",
-        BaseFont.IDENTITY_H,
-        BaseFont.EMBEDDED,
-        true,
-        bytes,
-        null
-    );
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) { super(out); }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+
+  // ---- Markdown ----
+
+  private static void addMarkdown(Document doc, List<MarkdownBlock> blocks, BaseFont bf) throws DocumentException {
+    for (MarkdownBlock b : blocks) {
+      switch (b.kind()) {
+        case HEADING -> {
+          float size = b.level() <= 1 ? 12 : b.level() == 2 ? 11 : MD_BODY_SIZE;
+          Paragraph p = spans(b.spans(), bf, size, Font.BOLD, null);
+          p.setSpacingBefore(4);
+          doc.add(p);
+        }
+        case PARAGRAPH, QUOTE -> {
+          boolean quote = b.kind() == MarkdownBlock.Kind.QUOTE;
+          Paragraph p = spans(b.spans(), bf, MD_BODY_SIZE, quote ? Font.ITALIC : Font.NORMAL, quote ? MD_QUOTE_COLOR : null);
+          p.setIndentationLeft(MD_INDENT * b.level());
+          p.setSpacingAfter(4);
+          doc.add(p);
+        }
+        case LIST_ITEM -> {
+          Paragraph p = new Paragraph(MD_BODY_SIZE * 1.5f);
+          if (!b.marker().isEmpty()) p.add(new Chunk(b.marker() + " ", new Font(bf, MD_BODY_SIZE)));
+          p.addAll(spans(b.spans(), bf, MD_BODY_SIZE, Font.NORMAL, null));
+          // 記号をぶら下げて、折り返し行を本文の位置に揃える
+          p.setIndentationLeft(MD_INDENT * (b.level() + 1));
+          if (!b.marker().isEmpty()) p.setFirstLineIndent(-MD_INDENT);
+          doc.add(p);
+        }
+        case CODE -> {
+          PdfPTable t = new PdfPTable(1);
+          t.setWidthPercentage(100);
+          t.setSpacingBefore(2);
+          t.setSpacingAfter(4);
+          PdfPCell c = new PdfPCell(new Phrase(b.spans().get(0).text(), new Font(bf, MD_BODY_SIZE - 1)));
+          c.setBackgroundColor(MD_CODE_BG);
+          c.setBorderColor(Color.LIGHT_GRAY);
+          c.setPadding(6);
+          t.addCell(c);
+          doc.add(t);
+        }
+        case RULE -> doc.add(new Paragraph(new Chunk(new LineSeparator(0.5f, 100, Color.LIGHT_GRAY, Element.ALIGN_CENTER, -2))));
+      }
+    }
+  }
+
+  private static Paragraph spans(List<Span> spans, BaseFont bf, float size, int style, Color color) {
+    Paragraph p = new Paragraph(size * 1.5f);
+    for (Span s : spans) {
+      Chunk c = new Chunk(s.text(), new Font(bf, s.code() ? size - 1 : size, style | s.style(), color));
+      if (s.code()) c.setBackground(MD_CODE_BG);
+      p.add(c);
+    }
+    return p;
   }
 
   private static void addHeader(PdfPTable table, String text, Font font) {
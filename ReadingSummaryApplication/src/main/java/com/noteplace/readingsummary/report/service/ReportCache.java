@@ -0,0 +1,169 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.ClusterResyncEvent;
+
+/**
+ * 生成済み PDF のキャッシュ。キーは (bookId, version)。
+ * 本・要約・セッションへの書き込みで version が進むので、古いエントリは参照されずに LRU で落ちる。
+ * ETag は W/"bookId-version"（キャッシュに無くても、PDF を作らずに 304 を返せる）。
+ * version は起動時刻から始まる単調増加の通し番号で、再起動や破棄の後も同じ値を使い回さない。
+ * 書き込みの無かった本は baseline を使う。versions が max-versions に達したら、全部捨てて baseline を進める。
+ */
+@Component
+public class ReportCache {
+
+  public record Entry(byte[] pdf) {}
+
+  private record Key(long bookId, long version) {}
+
+  private final AtomicLong clock = new AtomicLong(System.currentTimeMillis() * 1000);
+  private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+  private final int maxVersions;
+  private volatile long baseline = clock.get();
+
+  // access-order の LinkedHashMap を LRU として使う（操作はすべて synchronized (this)）
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final long maxBytes;
+  private final long maxEntryBytes;
+  private long totalBytes;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public ReportCache(
+      @Value("${app.report.cache.max-bytes}") long maxBytes,
+      @Value("${app.report.cache.max-entry-bytes}") long maxEntryBytes,
+      @Value("${app.report.cache.max-versions}") int maxVersions) {
+    this.maxBytes = maxBytes;
+    this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    this.maxVersions = maxVersions;
+  }
+
+  public long version(Long bookId) {
+    return versions.getOrDefault(bookId, baseline);
+  }
+
+  public static String etag(Long bookId, long version) {
+    return "W/\"" + bookId + "-" + version + "\"";
+  }
+
+  public synchronized Entry get(Long bookId, long version) {
+    Entry e = entries.get(new Key(bookId, version));
+    if (e == null) misses.increment();
+    else hits.increment();
+    return e;
+  }
+
+  public Entry put(Long bookId, long version, byte[] pdf) {
+    var e = new Entry(pdf);
+    if (pdf.length > maxEntryBytes) return e;
+    synchronized (this) {
+      Entry old = entries.put(new Key(bookId, version), e);
+      if (old != null) totalBytes -= old.pdf().length;
+      totalBytes += pdf.length;
+      var it = entries.values().iterator();
+      while (totalBytes > maxBytes && it.hasNext()) {
+        totalBytes -= it.next().pdf().length;
+        it.remove();
+      }
+    }
+    return e;
+  }
+
+  /**
+   * out への書き込みを写し取る。maxEntryBytes を超えたら写しは捨てる（captured() が null）。
+   */
+  public Capture capture(OutputStream out) {
+    return new Capture(out, maxEntryBytes);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    Long bookId = event.bookId();
+    if (event.deleted()) {
+      versions.remove(bookId);
+      synchronized (this) {
+        entries.entrySet().removeIf(en -> {
+          if (en.getKey().bookId() != bookId) return false;
+          totalBytes -= en.getValue().pdf().length;
+          return true;
+        });
+      }
+    } else {
+      if (versions.size() >= maxVersions) reset();
+      versions.put(bookId, clock.incrementAndGet());
+    }
+  }
+
+  // 他ノードでの変更を取りこぼしたかもしれない
+  @EventListener
+  public void onResync(ClusterResyncEvent event) {
+    reset();
+  }
+
+  // 全部の本の version を進める（baseline を先に進めるので、消した本が古い version に戻ることはない）
+  private void reset() {
+    baseline = clock.incrementAndGet();
+    versions.clear();
+    synchronized (this) {
+      entries.clear();
+      totalBytes = 0;
+    }
+  }
+
+  public long hitCount() { return hits.sum(); }
+  public long missCount() { return misses.sum(); }
+  public synchronized long totalBytes() { return totalBytes; }
+
+  public static final class Capture extends FilterOutputStream {
+
+    private final long limit;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    private Capture(OutputStream out, long limit) {
+      super(out);
+      this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      if (copy != null) {
+        copy.write(b);
+        checkLimit();
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      if (copy != null) {
+        copy.write(b, off, len);
+        checkLimit();
+      }
+    }
+
+    public byte[] captured() {
+      return copy == null ? null : copy.toByteArray();
+    }
+
+    private void checkLimit() {
+      if (copy.size() > limit) copy = null;
+    }
+  }
+}
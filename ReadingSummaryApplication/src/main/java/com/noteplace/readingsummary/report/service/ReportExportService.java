@@ -0,0 +1,145 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Service;
+
+import com.noteplace.readingsummary.book.domain.Book;
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.summary.domain.Summary;
+import com.noteplace.readingsummary.summary.repository.SummaryRepository;
+
+/**
+ * ユーザーの全書籍のレポートを ZIP にまとめて書き出す。
+ * batch-size 冊ずつ、要約を IN 句で 1 回で取って並列に生成し、できた順に ZIP へ流す。
+ * セッションは件数の上限がないので、バッチ全体で session-prefetch 行までまとめて読み、
+ * 残りは 1 冊ずつページングで読む（PdfReportService）。
+ */
+@Service
+public class ReportExportService {
+
+  private record Rendered(Book book, byte[] pdf) {}
+
+  private final BookRepository bookRepo;
+  private final SummaryRepository summaryRepo;
+  private final PdfReportService pdfReportService;
+  private final ThreadPoolTaskExecutor executor;
+  private final int batchSize;
+  private final int sessionPrefetch;
+  private final Semaphore running;
+
+  public ReportExportService(
+      BookRepository bookRepo,
+      SummaryRepository summaryRepo,
+      PdfReportService pdfReportService,
+      @Qualifier("reportExportExecutor") ThreadPoolTaskExecutor executor,
+      @Value("${app.report.export.batch-size}") int batchSize,
+      @Value("${app.report.export.session-prefetch}") int sessionPrefetch,
+      @Value("${app.report.export.max-concurrent}") int maxConcurrent) {
+    this.bookRepo = bookRepo;
+    this.summaryRepo = summaryRepo;
+    this.pdfReportService = pdfReportService;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.sessionPrefetch = sessionPrefetch;
+    this.running = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * エクスポート 1 本分の枠を取る。埋まっていれば TaskRejectedException（→ 503）。
+   * 返した Runnable で枠を返す（2 回目以降は何もしない）。
+   */
+  public Runnable acquireSlot() {
+    if (!running.tryAcquire()) throw new TaskRejectedException("too many concurrent exports");
+    var released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) running.release();
+    };
+  }
+
+  public void writeZip(Long userId, OutputStream out) throws IOException {
+    var zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    Limit limit = Limit.of(batchSize);
+    List<Book> books = bookRepo.findByUserIdOrderByIdDesc(userId, limit);
+    while (!books.isEmpty()) {
+      writeBatch(books, zip);
+      if (books.size() < batchSize) break;
+      books = bookRepo.findByUserIdAndIdLessThanOrderByIdDesc(userId, books.get(books.size() - 1).getId(), limit);
+    }
+    zip.finish();
+  }
+
+  private void writeBatch(List<Book> books, ZipOutputStream zip) throws IOException {
+    List<Long> ids = books.stream().map(Book::getId).toList();
+    // groupingBy は並び順を保つので、各リストはクエリの order by のまま
+    Map<Long, List<Summary>> summaries = summaryRepo.findByBookIdInOrderByScopeAscChapterAscIdAsc(ids).stream()
+        .collect(Collectors.groupingBy(Summary::getBookId));
+    var sessions = pdfReportService.prefetchSessions(ids, sessionPrefetch);
+
+    var done = new ExecutorCompletionService<Rendered>(executor);
+    var futures = new ArrayList<Future<Rendered>>(books.size());
+    try {
+      for (Book b : books) {
+        futures.add(done.submit(new DelegatingSecurityContextCallable<>(() -> {
+          var buf = new ByteArrayOutputStream();
+          pdfReportService.write(b, summaries.getOrDefault(b.getId(), List.of()), sessions, buf);
+          return new Rendered(b, buf.toByteArray());
+        })));
+      }
+      for (int i = 0; i < books.size(); i++) {
+        Rendered r = done.take().get();
+        putEntry(zip, entryName(r.book()), r.pdf());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("export interrupted");
+    } catch (ExecutionException e) {
+      throw new IOException("report generation failed", e.getCause());
+    } finally {
+      futures.forEach(f -> f.cancel(true));
+    }
+  }
+
+  // PDF はすでに圧縮済みなので無圧縮（STORED）で入れる
+  private static void putEntry(ZipOutputStream zip, String name, byte[] pdf) throws IOException {
+    var crc = new CRC32();
+    crc.update(pdf);
+    var entry = new ZipEntry(name);
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(pdf.length);
+    entry.setCompressedSize(pdf.length);
+    entry.setCrc(crc.getValue());
+    zip.putNextEntry(entry);
+    zip.write(pdf);
+    zip.closeEntry();
+    zip.flush(); // できた分から送る
+  }
+
+  private static String entryName(Book b) {
+    String title = b.getTitle() == null ? "" : b.getTitle().replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").strip();
+    if (title.length() > 60) title = title.substring(0, 60);
+    return b.getId() + (title.isEmpty() ? "" : "-" + title) + ".pdf";
+  }
+}
@@ -0,0 +1,82 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.io.IOException;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.lowagie.text.Font;
+import com.lowagie.text.pdf.BaseFont;
+
+/**
+ * レポート用フォントを JVM 内で 1 回だけ読み込んで共有する。
+ * BaseFont は writer ごとに使用グリフを記録してサブセット埋め込みするため、並行生成でも共有できる。
+ */
+@Component
+public class ReportFontRegistry {
+
+  private static final String FONT_PATH = "fonts/NotoSansJP-Regular.ttf";
+
+  private final Resource font;
+  private volatile Fonts fonts;
+
+  public ReportFontRegistry() { this(new ClassPathResource(FONT_PATH)); }
+
+  // ベンチマークなどで別のフォントファイルを使うとき用
+  ReportFontRegistry(Resource font) { this.font = font; }
+
+  // まだなら読み込む。ストリーミングを始める前に失敗を表に出すため
+  public void load() throws IOException { fonts(); }
+
+  public Font title() throws IOException { return fonts().title(); }
+  public Font heading() throws IOException { return fonts().heading(); }
+  public Font chapter() throws IOException { return fonts().chapter(); }
+  public Font body() throws IOException { return fonts().body(); }
+  // Markdown の装飾ごとに Font を作るとき用
+  public BaseFont baseFont() throws IOException { return fonts().baseFont(); }
+
+  private Fonts fonts() throws IOException {
+    Fonts f = fonts;
+    if (f == null) {
+      synchronized (this) {
+        f = fonts;
+        if (f == null) {
+          f = Fonts.of(loadJapaneseBaseFont(font));
+          fonts = f;
+        }
+      }
+    }
+    return f;
+  }
+
+  private static BaseFont loadJapaneseBaseFont(Resource res) throws IOException {
+    // フォント埋め込み（日本語対応）。subset は既定で true なので、文書ごとに使った字形だけが入る
+    byte[] bytes;
+    try (var in = res.getInputStream()) {
+      bytes = in.readAllBytes();
+    }
+    BaseFont bf = BaseFont.createFont(
+        "NotoSansJP-Regular.ttf",
+        BaseFont.IDENTITY_H,
+        BaseFont.EMBEDDED,
+        false,
+        bytes,
+        null
+    );
+    bf.setSubset(true);
+    return bf;
+  }
+
+  private record Fonts(BaseFont baseFont, Font title, Font heading, Font chapter, Font body) {
+    static Fonts of(BaseFont bf) {
+      return new Fonts(
+          bf,
+          new Font(bf, 18, Font.BOLD),
+          new Font(bf, 13, Font.BOLD),
+          new Font(bf, 11, Font.BOLD),
+          new Font(bf, 10)
+      );
+    }
+  }
+}
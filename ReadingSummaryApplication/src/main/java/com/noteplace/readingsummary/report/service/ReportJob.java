@@ -0,0 +1,46 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import lombok.Getter;
+
+/**
+ * 非同期レポート生成ジョブ（メモリ上のみ。結果ファイルはローカルディスク）。
+ */
+@Getter
+public class ReportJob {
+
+  public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+  private final String id;
+  private final Long userId;
+  private final Long bookId;
+  private final Instant createdAt;
+
+  private volatile Status status = Status.PENDING;
+  private volatile Instant finishedAt;
+  private volatile Path file;
+
+  public ReportJob(String id, Long userId, Long bookId) {
+    this.id = id;
+    this.userId = userId;
+    this.bookId = bookId;
+    this.createdAt = Instant.now();
+  }
+
+  void markRunning() {
+    status = Status.RUNNING;
+  }
+
+  void markDone(Path file) {
+    this.file = file;
+    this.finishedAt = Instant.now();
+    this.status = Status.DONE;
+  }
+
+  void markFailed() {
+    this.finishedAt = Instant.now();
+    this.status = Status.FAILED;
+  }
+}
@@ -0,0 +1,139 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.book.domain.Book;
+
+/**
+ * PDF レポートの非同期生成。
+ * 同じ (userId, bookId) の生成中ジョブは 1 つにまとめ、結果は app.report.jobs.dir に ttl の間だけ残す。
+ */
+@Service
+public class ReportJobService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+  private final PdfReportService pdfReportService;
+  private final ThreadPoolTaskExecutor executor;
+  private final Path dir;
+  private final Duration ttl;
+
+  private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+  // (userId:bookId) → 生成中のジョブ
+  private final ConcurrentHashMap<String, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+  public ReportJobService(
+      PdfReportService pdfReportService,
+      @Qualifier("pdfRenderExecutor") ThreadPoolTaskExecutor executor,
+      @Value("${app.report.jobs.dir}") Path dir,
+      @Value("${app.report.jobs.ttl}") Duration ttl) throws IOException {
+    this.pdfReportService = pdfReportService;
+    this.executor = executor;
+    this.dir = Files.createDirectories(dir);
+    this.ttl = ttl;
+  }
+
+  public ReportJob submit(Long userId, Long bookId) {
+    Book book = pdfReportService.findOwnBook(userId, bookId);
+
+    String key = userId + ":" + bookId;
+    var job = new ReportJob(UUID.randomUUID().toString(), userId, bookId);
+    ReportJob running = inFlight.putIfAbsent(key, job);
+    if (running != null) return running;
+
+    jobs.put(job.getId(), job);
+    try {
+      // 読み取りの振り分け（read-your-writes）にユーザーが要るので認証情報を引き継ぐ
+      executor.execute(new DelegatingSecurityContextRunnable(() -> run(job, book, key)));
+    } catch (TaskRejectedException e) {
+      // 待ち行列が満杯 → 503（GlobalExceptionHandler）
+      inFlight.remove(key, job);
+      jobs.remove(job.getId());
+      throw e;
+    }
+    return job;
+  }
+
+  /** 他人のジョブ・期限切れのジョブは 404。 */
+  public ReportJob find(Long userId, String jobId) {
+    ReportJob job = jobs.get(jobId);
+    if (job == null || !job.getUserId().equals(userId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "job not found");
+    }
+    return job;
+  }
+
+  private void run(ReportJob job, Book book, String key) {
+    job.markRunning();
+    Path part = dir.resolve(job.getId() + ".pdf.part");
+    Path file = dir.resolve(job.getId() + ".pdf");
+    try {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+        pdfReportService.write(book, out);
+      }
+      Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+      job.markDone(file);
+    } catch (Exception e) {
+      log.warn("report job {} failed (bookId={})", job.getId(), job.getBookId(), e);
+      deleteQuietly(part);
+      job.markFailed();
+    } finally {
+      inFlight.remove(key, job);
+    }
+  }
+
+  @Scheduled(fixedDelay = 60_000)
+  public void evictExpired() {
+    Instant cutoff = Instant.now().minus(ttl);
+
+    jobs.values().removeIf(job -> {
+      Instant finished = job.getFinishedAt();
+      if (finished == null || finished.isAfter(cutoff)) return false;
+      if (job.getFile() != null) deleteQuietly(job.getFile());
+      return true;
+    });
+
+    // 再起動前の取り残し（.part を含む）も更新日時で掃除する
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+      for (Path f : files) {
+        String name = f.getFileName().toString();
+        String id = name.substring(0, name.indexOf('.') < 0 ? name.length() : name.indexOf('.'));
+        if (jobs.containsKey(id)) continue;
+        if (Files.getLastModifiedTime(f).toInstant().isBefore(cutoff)) deleteQuietly(f);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void deleteQuietly(Path p) {
+    try {
+      Files.deleteIfExists(p);
+    } catch (IOException e) {
+      log.warn("failed to delete {}", p, e);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.noteplace.readingsummary.report.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.BlockQuote;
+import org.commonmark.node.BulletList;
+import org.commonmark.node.Code;
+import org.commonmark.node.Emphasis;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.HardLineBreak;
+import org.commonmark.node.Heading;
+import org.commonmark.node.HtmlBlock;
+import org.commonmark.node.HtmlInline;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.ListItem;
+import org.commonmark.node.Node;
+import org.commonmark.node.OrderedList;
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.SoftLineBreak;
+import org.commonmark.node.StrongEmphasis;
+import org.commonmark.node.Text;
+import org.commonmark.node.ThematicBreak;
+import org.commonmark.parser.Parser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.lowagie.text.Font;
+import com.noteplace.readingsummary.report.service.MarkdownBlock.Kind;
+import com.noteplace.readingsummary.report.service.MarkdownBlock.Span;
+import com.noteplace.readingsummary.summary.domain.Summary;
+
+/**
+ * 要約の Markdown を MarkdownBlock 列に変換し、(summaryId, updatedAt) で保持する。
+ * 1 章だけ編集した後の再生成では、その章だけを解析し直す。
+ */
+@Component
+public class SummaryMarkdownCache {
+
+  private record Entry(Instant updatedAt, List<MarkdownBlock> blocks) {}
+
+  // Parser はスレッドセーフ
+  private final Parser parser = Parser.builder().build();
+  private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final int maxEntries;
+
+  public SummaryMarkdownCache(@Value("${app.report.markdown-cache-size}") int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public List<MarkdownBlock> blocks(Summary s) {
+    Entry e = entries.get(s.getId());
+    if (e != null && e.updatedAt().equals(s.getUpdatedAt())) return e.blocks();
+
+    List<MarkdownBlock> blocks = parse(s.getContentMd());
+    if (entries.size() >= maxEntries) evictOne();
+    entries.put(s.getId(), new Entry(s.getUpdatedAt(), blocks));
+    return blocks;
+  }
+
+  List<MarkdownBlock> parse(String markdown) {
+    var out = new ArrayList<MarkdownBlock>();
+    addBlocks(parser.parse(markdown == null ? "" : markdown), 0, false, out);
+    return List.copyOf(out);
+  }
+
+  private void evictOne() {
+    Iterator<Long> it = entries.keySet().iterator();
+    if (it.hasNext()) {
+      entries.remove(it.next());
+    }
+  }
+
+  // ---- ブロック ----
+
+  private static void addBlocks(Node parent, int depth, boolean quote, List<MarkdownBlock> out) {
+    for (Node n = parent.getFirstChild(); n != null; n = n.getNext()) {
+      addBlock(n, depth, quote, out);
+    }
+  }
+
+  private static void addBlock(Node n, int depth, boolean quote, List<MarkdownBlock> out) {
+    if (n instanceof Heading h) {
+      out.add(new MarkdownBlock(Kind.HEADING, h.getLevel(), "", spans(h)));
+    } else if (n instanceof Paragraph p) {
+      out.add(new MarkdownBlock(quote ? Kind.QUOTE : Kind.PARAGRAPH, depth, "", spans(p)));
+    } else if (n instanceof BulletList list) {
+      addListItems(list, depth, quote, null, out);
+    } else if (n instanceof OrderedList list) {
+      addListItems(list, depth, quote, list.getMarkerStartNumber() == null ? 1 : list.getMarkerStartNumber(), out);
+    } else if (n instanceof BlockQuote) {
+      addBlocks(n, depth + 1, true, out);
+    } else if (n instanceof FencedCodeBlock code) {
+      out.add(codeBlock(code.getLiteral(), depth));
+    } else if (n instanceof IndentedCodeBlock code) {
+      out.add(codeBlock(code.getLiteral(), depth));
+    } else if (n instanceof HtmlBlock html) {
+      out.add(new MarkdownBlock(Kind.PARAGRAPH, depth, "", List.of(new Span(html.getLiteral(), Font.NORMAL, false))));
+    } else if (n instanceof ThematicBreak) {
+      out.add(new MarkdownBlock(Kind.RULE, depth, "", List.of()));
+    } else {
+      addBlocks(n, depth, quote, out);
+    }
+  }
+
+  private static void addListItems(Node list, int depth, boolean quote, Integer start, List<MarkdownBlock> out) {
+    int number = start == null ? 0 : start;
+    for (Node item = list.getFirstChild(); item != null; item = item.getNext()) {
+      if (!(item instanceof ListItem)) continue;
+      String marker = start == null ? "•" : (number++) + ".";
+      for (Node child = item.getFirstChild(); child != null; child = child.getNext()) {
+        if (child instanceof Paragraph p) {
+          out.add(new MarkdownBlock(Kind.LIST_ITEM, depth, marker, spans(p)));
+          marker = ""; // 2 段落目以降は記号なしで字下げだけ揃える
+        } else {
+          // 入れ子のリスト等は 1 段深くして同じ規則で変換する
+          addBlock(child, depth + 1, quote, out);
+        }
+      }
+    }
+  }
+
+  private static MarkdownBlock codeBlock(String literal, int depth) {
+    String text = literal.endsWith("\n") ? literal.substring(0, literal.length() - 1) : literal;
+    return new MarkdownBlock(Kind.CODE, depth, "", List.of(new Span(text, Font.NORMAL, true)));
+  }
+
+  // ---- インライン ----
+
+  private static List<Span> spans(Node block) {
+    var out = new ArrayList<Span>();
+    block.accept(new AbstractVisitor() {
+      int style = Font.NORMAL;
+
+      @Override public void visit(Text text) { out.add(new Span(text.getLiteral(), style, false)); }
+      @Override public void visit(Code code) { out.add(new Span(code.getLiteral(), style, true)); }
+      @Override public void visit(HtmlInline html) { out.add(new Span(html.getLiteral(), style, false)); }
+      // 元のテキスト表示に合わせて、段落内の改行はそのまま改行にする
+      @Override public void visit(SoftLineBreak br) { out.add(new Span("\n", style, false)); }
+      @Override public void visit(HardLineBreak br) { out.add(new Span("\n", style, false)); }
+
+      @Override public void visit(Emphasis e) { styled(e, Font.ITALIC); }
+      @Override public void visit(StrongEmphasis e) { styled(e, Font.BOLD); }
+
+      private void styled(Node n, int add) {
+        int saved = style;
+        style |= add;
+        visitChildren(n);
+        style = saved;
+      }
+    });
+    return List.copyOf(out);
+  }
+}
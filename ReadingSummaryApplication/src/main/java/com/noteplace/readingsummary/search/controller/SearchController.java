@@ -0,0 +1,49 @@
+package com.noteplace.readingsummary.search.controller;
+
+import java.util.List;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.search.dto.InstantHitResponse;
+import com.noteplace.readingsummary.search.dto.SearchHitResponse;
+import com.noteplace.readingsummary.search.service.SearchService;
+import com.noteplace.readingsummary.search.service.SummaryIndexService;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+  private final SearchService searchService;
+  private final SummaryIndexService summaryIndex;
+
+  public SearchController(SearchService searchService, SummaryIndexService summaryIndex) {
+    this.searchService = searchService;
+    this.summaryIndex = summaryIndex;
+  }
+
+  @GetMapping
+  public CursorPage<SearchHitResponse> search(
+      @AuthenticationPrincipal AuthUser user,
+      @RequestParam String q,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int limit
+  ) {
+    return searchService.search(user.id(), q, cursor, limit);
+  }
+
+  // 入力中検索（組み込みインデックス。要約本文のみ、新しい順）
+  @GetMapping("/instant")
+  public List<InstantHitResponse> instant(
+      @AuthenticationPrincipal AuthUser user,
+      @RequestParam String q,
+      @RequestParam(defaultValue = "20") int limit
+  ) {
+    return summaryIndex.search(user.id(), q, Math.max(1, Math.min(limit, 100)));
+  }
+}
@@ -0,0 +1,6 @@
+package com.noteplace.readingsummary.search.dto;
+
+public record InstantHitResponse(
+    Long summaryId,
+    Long bookId
+) {}
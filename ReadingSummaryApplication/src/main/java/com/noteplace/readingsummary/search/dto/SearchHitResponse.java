@@ -0,0 +1,19 @@
+package com.noteplace.readingsummary.search.dto;
+
+import java.util.List;
+
+/**
+ * 検索結果 1 件。highlights は snippet 内の一致箇所（[start, end) の文字位置）。
+ */
+public record SearchHitResponse(
+    String kind,      // SUMMARY / SESSION
+    Long id,
+    Long bookId,
+    String bookTitle,
+    Integer chapter,
+    String snippet,
+    List<Highlight> highlights,
+    float rank
+) {
+  public record Highlight(int start, int end) {}
+}
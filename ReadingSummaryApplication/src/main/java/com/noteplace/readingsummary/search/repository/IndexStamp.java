@@ -0,0 +1,11 @@
+package com.noteplace.readingsummary.search.repository;
+
+import java.time.Instant;
+
+/**
+ * ユーザーの要約件数と最終更新日時。インデックスのスナップショットが最新か確かめるのに使う。
+ */
+public interface IndexStamp {
+  long getTotal();
+  Instant getLastUpdated(); // 要約が無ければ null
+}
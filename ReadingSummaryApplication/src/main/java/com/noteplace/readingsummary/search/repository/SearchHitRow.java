@@ -0,0 +1,11 @@
+package com.noteplace.readingsummary.search.repository;
+
+public interface SearchHitRow {
+  String getKind();      // SUMMARY / SESSION
+  Long getId();
+  Long getBookId();
+  String getBookTitle();
+  Integer getChapter();  // SESSION は null
+  String getBody();
+  Float getRank();
+}
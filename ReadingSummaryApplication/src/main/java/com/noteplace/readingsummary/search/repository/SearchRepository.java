@@ -0,0 +1,92 @@
+package com.noteplace.readingsummary.search.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noteplace.readingsummary.summary.domain.Summary;
+
+/**
+ * 要約本文・セッションメモの横断検索。
+ * search_tsv（CJK は 2 文字ずつ、英数字は語ごと。V8 の search_bigram_tsvector）に :tsq が当たった行を
+ * ts_rank でランク付けする。:tsq は SearchService が同じ切り方で組み立てた tsquery の文字列。
+ * よくある語でヒット数が膨らんでも ts_rank を計算する行が増えないよう、要約・メモそれぞれ :candidates 件で打ち切ってから並べる
+ * （打ち切った場合の順位は、その候補の中での順位）。
+ * ページングは (rank, kind, id) の降順でキーセット。
+ * 検索は readOnly（レプリカへ回る）。組み込みインデックスの読み込みはキャッシュに載せるのでプライマリから読む。
+ */
+public interface SearchRepository extends Repository<Summary, Long> {
+
+  String HITS = """
+    with q as (select cast(:tsq as tsquery) as tsq),
+    hits as (
+      (select 'SUMMARY' as kind, s.id, s.book_id as "bookId", b.title as "bookTitle", s.chapter,
+              s.content_md as body, ts_rank(s.search_tsv, q.tsq) as rank
+         from summaries s
+         join books b on b.id = s.book_id
+         cross join q
+        where b.user_id = :userId
+          and s.search_tsv @@ q.tsq
+        limit :candidates)
+      union all
+      (select 'SESSION' as kind, r.id, r.book_id, b.title, null, r.memo, ts_rank(r.search_tsv, q.tsq)
+         from reading_sessions r
+         join books b on b.id = r.book_id
+         cross join q
+        where b.user_id = :userId
+          and r.search_tsv @@ q.tsq
+        limit :candidates)
+    )
+    select * from hits
+    """;
+
+  String ORDER = """
+    order by rank desc, kind desc, id desc
+    limit :limit
+    """;
+
+  // ---- 組み込みインデックス（SummaryIndexService）用 ----
+
+  @Query("""
+    select s from Summary s, com.noteplace.readingsummary.book.domain.Book b
+    where s.bookId = b.id
+      and b.userId = :userId
+    order by s.id
+  """)
+  List<Summary> findSummariesByUserId(@Param("userId") Long userId);
+
+  @Query("""
+    select count(s) as total, max(s.updatedAt) as lastUpdated
+    from Summary s, com.noteplace.readingsummary.book.domain.Book b
+    where s.bookId = b.id
+      and b.userId = :userId
+  """)
+  IndexStamp indexStamp(@Param("userId") Long userId);
+
+  @Transactional(readOnly = true)
+  @Query(nativeQuery = true, value = HITS + ORDER)
+  List<SearchHitRow> search(
+      @Param("userId") Long userId,
+      @Param("tsq") String tsq,
+      @Param("candidates") int candidates,
+      @Param("limit") int limit
+  );
+
+  @Transactional(readOnly = true)
+  @Query(nativeQuery = true, value = HITS + """
+    where rank < :rank
+       or (rank = :rank and (kind, id) < (:kind, :id))
+    """ + ORDER)
+  List<SearchHitRow> searchAfter(
+      @Param("userId") Long userId,
+      @Param("tsq") String tsq,
+      @Param("candidates") int candidates,
+      @Param("rank") float rank,
+      @Param("kind") String kind,
+      @Param("id") Long id,
+      @Param("limit") int limit
+  );
+}
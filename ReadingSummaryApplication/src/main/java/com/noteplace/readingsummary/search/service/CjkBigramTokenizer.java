@@ -0,0 +1,67 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * NFKC 正規化・小文字化したうえで、漢字・かな・ハングルの連続は 2 文字ずつ（1 文字だけなら 1 文字）、
+ * それ以外の英数字の連続は 1 語として切り出す。記号・空白は区切り。
+ */
+final class CjkBigramTokenizer {
+
+  private CjkBigramTokenizer() {}
+
+  /** 重複を除いた語を出現順に返す。 */
+  static List<String> tokenize(String text) {
+    return new ArrayList<>(new LinkedHashSet<>(sequence(text)));
+  }
+
+  /** 語を出現順に、重複も含めて返す（フレーズ検索用）。 */
+  static List<String> sequence(String text) {
+    var out = new ArrayList<String>();
+    if (text == null) return out;
+    String s = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+    int i = 0;
+    int n = s.length();
+    var run = new ArrayList<Integer>();
+    while (i < n) {
+      int cp = s.codePointAt(i);
+      if (isCjk(cp)) {
+        run.clear();
+        while (i < n && isCjk(cp = s.codePointAt(i))) {
+          run.add(cp);
+          i += Character.charCount(cp);
+        }
+        if (run.size() == 1) {
+          out.add(Character.toString(run.get(0)));
+        } else {
+          for (int j = 0; j + 1 < run.size(); j++) {
+            out.add(new StringBuilder().appendCodePoint(run.get(j)).appendCodePoint(run.get(j + 1)).toString());
+          }
+        }
+      } else if (Character.isLetterOrDigit(cp)) {
+        int start = i;
+        while (i < n && Character.isLetterOrDigit(cp = s.codePointAt(i)) && !isCjk(cp)) {
+          i += Character.charCount(cp);
+        }
+        out.add(s.substring(start, i));
+      } else {
+        i += Character.charCount(cp);
+      }
+    }
+    return out;
+  }
+
+  static boolean isCjk(int cp) {
+    if (cp == 'ー' || cp == '々') return true; // 長音・踊り字は COMMON 扱いなので個別に
+    Character.UnicodeScript sc = Character.UnicodeScript.of(cp);
+    return sc == Character.UnicodeScript.HAN
+        || sc == Character.UnicodeScript.HIRAGANA
+        || sc == Character.UnicodeScript.KATAKANA
+        || sc == Character.UnicodeScript.HANGUL;
+  }
+}
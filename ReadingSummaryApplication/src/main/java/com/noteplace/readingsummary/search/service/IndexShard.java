@@ -0,0 +1,243 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 1 ユーザー分の転置インデックス。
+ * 文書（要約）には追加順に番号を振り、更新は「古い番号を削除済みにして新しい番号で追加」で表す。
+ * 削除済みが半分を超えたら番号を詰め直す。操作はすべて synchronized。
+ */
+final class IndexShard {
+
+  record Hit(long summaryId, long bookId) {}
+
+  private static final int MAGIC = 0x52534958; // "RSIX"
+  private static final int FORMAT_VERSION = 1;
+  private static final int COMPACT_MIN_DOCS = 64;
+
+  private final TreeMap<String, PostingList> postings = new TreeMap<>();
+  private final Map<Long, Integer> ordinalOf = new HashMap<>();
+
+  private long[] summaryIds = new long[16];
+  private long[] bookIds = new long[16];
+  private long[] updatedMillis = new long[16];
+  private BitSet deleted = new BitSet();
+  private int docCount;
+  private int deletedCount;
+  private boolean dirty;
+
+  synchronized void put(long summaryId, long bookId, long updatedAtMillis, String content) {
+    remove(summaryId);
+
+    int ord = docCount++;
+    if (ord == summaryIds.length) {
+      int cap = summaryIds.length * 2;
+      summaryIds = Arrays.copyOf(summaryIds, cap);
+      bookIds = Arrays.copyOf(bookIds, cap);
+      updatedMillis = Arrays.copyOf(updatedMillis, cap);
+    }
+    summaryIds[ord] = summaryId;
+    bookIds[ord] = bookId;
+    updatedMillis[ord] = updatedAtMillis;
+    for (String term : CjkBigramTokenizer.tokenize(content)) {
+      postings.computeIfAbsent(term, t -> new PostingList()).add(ord);
+    }
+    ordinalOf.put(summaryId, ord);
+    dirty = true;
+  }
+
+  synchronized void remove(long summaryId) {
+    Integer ord = ordinalOf.remove(summaryId);
+    if (ord == null) return;
+    deleted.set(ord);
+    deletedCount++;
+    dirty = true;
+    if (docCount >= COMPACT_MIN_DOCS && deletedCount * 2 > docCount) compact();
+  }
+
+  /**
+   * 全語を含む文書を新しい順に返す。最後の語は前方一致（入力途中の語を拾うため）。
+   */
+  synchronized List<Hit> search(List<String> terms, int limit) {
+    if (terms.isEmpty()) return List.of();
+
+    int[] docs = null;
+    for (int i = 0; i < terms.size() && (docs == null || docs.length > 0); i++) {
+      int[] next = (i == terms.size() - 1) ? prefix(terms.get(i)) : exact(terms.get(i));
+      docs = (docs == null) ? next : intersect(docs, next);
+    }
+
+    var out = new ArrayList<Hit>();
+    for (int i = docs.length - 1; i >= 0 && out.size() < limit; i--) {
+      int ord = docs[i];
+      if (!deleted.get(ord)) out.add(new Hit(summaryIds[ord], bookIds[ord]));
+    }
+    return out;
+  }
+
+  synchronized int liveCount() {
+    return docCount - deletedCount;
+  }
+
+  /** 生きている文書の updated_at の最大（スナップショットの鮮度確認用）。文書が無ければ 0。 */
+  synchronized long maxUpdatedMillis() {
+    long max = 0;
+    for (int ord = 0; ord < docCount; ord++) {
+      if (!deleted.get(ord)) max = Math.max(max, updatedMillis[ord]);
+    }
+    return max;
+  }
+
+  synchronized boolean isDirty() {
+    return dirty;
+  }
+
+  private int[] exact(String term) {
+    PostingList p = postings.get(term);
+    return p == null ? new int[0] : p.toArray();
+  }
+
+  private int[] prefix(String term) {
+    var union = new BitSet(docCount);
+    for (PostingList p : postings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+      for (int ord : p.toArray()) union.set(ord);
+    }
+    return union.stream().toArray();
+  }
+
+  private static int[] intersect(int[] a, int[] b) {
+    int[] out = new int[Math.min(a.length, b.length)];
+    int n = 0;
+    for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+      if (a[i] < b[j]) i++;
+      else if (a[i] > b[j]) j++;
+      else {
+        out[n++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(out, n);
+  }
+
+  // 削除済みの番号を取り除いて詰め直す
+  private void compact() {
+    int[] remap = new int[docCount];
+    int live = 0;
+    for (int ord = 0; ord < docCount; ord++) {
+      if (deleted.get(ord)) {
+        remap[ord] = -1;
+        continue;
+      }
+      remap[ord] = live;
+      summaryIds[live] = summaryIds[ord];
+      bookIds[live] = bookIds[ord];
+      updatedMillis[live] = updatedMillis[ord];
+      live++;
+    }
+
+    var it = postings.entrySet().iterator();
+    while (it.hasNext()) {
+      var e = it.next();
+      var compacted = new PostingList();
+      for (int ord : e.getValue().toArray()) {
+        if (remap[ord] >= 0) compacted.add(remap[ord]);
+      }
+      if (compacted.count() == 0) it.remove();
+      else e.setValue(compacted);
+    }
+
+    ordinalOf.clear();
+    for (int ord = 0; ord < live; ord++) ordinalOf.put(summaryIds[ord], ord);
+    docCount = live;
+    deletedCount = 0;
+    deleted = new BitSet();
+  }
+
+  // ---- スナップショット ----
+
+  synchronized void writeTo(Path file) throws IOException {
+    if (deletedCount > 0) compact();
+
+    var terms = new ArrayList<byte[]>(postings.size());
+    int size = 4 + 4 + 4 + docCount * 24 + 4;
+    for (var e : postings.entrySet()) {
+      byte[] t = e.getKey().getBytes(StandardCharsets.UTF_8);
+      terms.add(t);
+      size += 4 + t.length + e.getValue().serializedSize();
+    }
+
+    ByteBuffer buf = ByteBuffer.allocate(size);
+    buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(docCount);
+    for (int ord = 0; ord < docCount; ord++) {
+      buf.putLong(summaryIds[ord]).putLong(bookIds[ord]).putLong(updatedMillis[ord]);
+    }
+    buf.putInt(postings.size());
+    int i = 0;
+    for (PostingList p : postings.values()) {
+      byte[] t = terms.get(i++);
+      buf.putInt(t.length).put(t);
+      p.writeTo(buf);
+    }
+    buf.flip();
+
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buf.hasRemaining()) ch.write(buf);
+      ch.force(false);
+    }
+    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    dirty = false;
+  }
+
+  /** スナップショットを mmap で読む。形式が違えば IOException。 */
+  static IndexShard readFrom(Path file) throws IOException {
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+        throw new IOException("unknown index format: " + file);
+      }
+
+      var shard = new IndexShard();
+      int docs = buf.getInt();
+      int cap = Math.max(16, Integer.highestOneBit(Math.max(1, docs)) << 1);
+      shard.summaryIds = new long[cap];
+      shard.bookIds = new long[cap];
+      shard.updatedMillis = new long[cap];
+      for (int ord = 0; ord < docs; ord++) {
+        shard.summaryIds[ord] = buf.getLong();
+        shard.bookIds[ord] = buf.getLong();
+        shard.updatedMillis[ord] = buf.getLong();
+        shard.ordinalOf.put(shard.summaryIds[ord], ord);
+      }
+      shard.docCount = docs;
+
+      int terms = buf.getInt();
+      for (int i = 0; i < terms; i++) {
+        byte[] t = new byte[buf.getInt()];
+        buf.get(t);
+        shard.postings.put(new String(t, StandardCharsets.UTF_8), PostingList.readFrom(buf));
+      }
+      return shard;
+    } catch (RuntimeException e) {
+      // 途中で切れたファイルなど（BufferUnderflowException 等）
+      throw new IOException("broken index snapshot: " + file, e);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 昇順の文書番号列。差分を可変長整数（7 bit ずつ）で byte[] に詰める。
+ * 追加は末尾（これまでの最大より大きい番号）のみ。
+ */
+final class PostingList {
+
+  private byte[] data;
+  private int length;  // data の使用バイト数
+  private int count;   // 文書数
+  private int last = -1;
+
+  PostingList() {
+    this.data = new byte[4];
+  }
+
+  private PostingList(byte[] data, int count, int last) {
+    this.data = data;
+    this.length = data.length;
+    this.count = count;
+    this.last = last;
+  }
+
+  void add(int doc) {
+    if (doc <= last) throw new IllegalArgumentException("doc must be increasing: " + doc + " <= " + last);
+    int delta = doc - last;
+    if (length + 5 > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+    while ((delta & ~0x7F) != 0) {
+      data[length++] = (byte) ((delta & 0x7F) | 0x80);
+      delta >>>= 7;
+    }
+    data[length++] = (byte) delta;
+    last = doc;
+    count++;
+  }
+
+  int count() {
+    return count;
+  }
+
+  int[] toArray() {
+    int[] out = new int[count];
+    int doc = -1;
+    int p = 0;
+    for (int i = 0; i < count; i++) {
+      int delta = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[p++];
+        delta |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      doc += delta;
+      out[i] = doc;
+    }
+    return out;
+  }
+
+  // スナップショット形式: count, last, length, bytes
+  void writeTo(ByteBuffer buf) {
+    buf.putInt(count).putInt(last).putInt(length).put(data, 0, length);
+  }
+
+  int serializedSize() {
+    return 12 + length;
+  }
+
+  static PostingList readFrom(ByteBuffer buf) {
+    int count = buf.getInt();
+    int last = buf.getInt();
+    byte[] data = new byte[buf.getInt()];
+    buf.get(data);
+    return new PostingList(data, count, last);
+  }
+}
@@ -0,0 +1,120 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.common.pagination.Cursors;
+import com.noteplace.readingsummary.search.dto.SearchHitResponse;
+import com.noteplace.readingsummary.search.dto.SearchHitResponse.Highlight;
+import com.noteplace.readingsummary.search.repository.SearchHitRow;
+import com.noteplace.readingsummary.search.repository.SearchRepository;
+
+@Service
+public class SearchService {
+
+  private static final int MAX_QUERY_LENGTH = 100;
+  // 一致箇所の前に残す文字数と、スニペット全体の長さ
+  private static final int SNIPPET_BEFORE = 40;
+  private static final int SNIPPET_LENGTH = 160;
+
+  private final SearchRepository searchRepo;
+  private final int maxCandidates;
+
+  public SearchService(SearchRepository searchRepo, @Value("${app.search.max-candidates}") int maxCandidates) {
+    this.searchRepo = searchRepo;
+    this.maxCandidates = maxCandidates;
+  }
+
+  public CursorPage<SearchHitResponse> search(Long userId, String q, String cursor, int limit) {
+    String query = q == null ? "" : q.strip();
+    if (query.isEmpty() || query.length() > MAX_QUERY_LENGTH) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must be 1.." + MAX_QUERY_LENGTH + " characters");
+    }
+    List<String> terms = Arrays.stream(query.split("\\s+")).filter(t -> !t.isEmpty()).toList();
+    String tsq = toTsQuery(terms);
+
+    int n = Cursors.clamp(limit);
+    List<SearchHitRow> rows;
+    if (tsq.isEmpty()) {
+      rows = List.of(); // 記号だけの検索語は何にも当たらない
+    } else if (cursor == null) {
+      rows = searchRepo.search(userId, tsq, maxCandidates, n + 1);
+    } else {
+      String[] k = Cursors.decode(cursor, 3);
+      rows = searchRepo.searchAfter(userId, tsq, maxCandidates,
+          Cursors.parse(k[0], Float::parseFloat), k[1], Cursors.parse(k[2], Long::valueOf), n + 1);
+    }
+
+    List<SearchHitResponse> hits = rows.stream().map(r -> toRes(r, query, terms)).toList();
+    return CursorPage.of(hits, n, h -> Cursors.encode(h.rank(), h.kind(), h.id()));
+  }
+
+  private SearchHitResponse toRes(SearchHitRow r, String query, List<String> terms) {
+    String body = r.getBody();
+    String snippet = snippet(body, query, terms);
+    return new SearchHitResponse(r.getKind(), r.getId(), r.getBookId(), r.getBookTitle(), r.getChapter(),
+        snippet, highlights(snippet, terms), r.getRank());
+  }
+
+  // 最初の一致箇所のまわりを切り出す（全体一致を優先し、なければ語ごと）
+  private static String snippet(String body, String query, List<String> terms) {
+    int at = indexOfIgnoreCase(body, query, 0);
+    for (int i = 0; at < 0 && i < terms.size(); i++) {
+      at = indexOfIgnoreCase(body, terms.get(i), 0);
+    }
+    int start = Math.max(0, at - SNIPPET_BEFORE);
+    int end = Math.min(body.length(), start + SNIPPET_LENGTH);
+    return (start > 0 ? "…" : "") + body.substring(start, end) + (end < body.length() ? "…" : "");
+  }
+
+  private static List<Highlight> highlights(String snippet, List<String> terms) {
+    var out = new ArrayList<Highlight>();
+    for (String t : terms) {
+      for (int i = indexOfIgnoreCase(snippet, t, 0); i >= 0; i = indexOfIgnoreCase(snippet, t, i + t.length())) {
+        out.add(new Highlight(i, i + t.length()));
+      }
+    }
+    out.sort((a, b) -> Integer.compare(a.start(), b.start()));
+    return out;
+  }
+
+  private static int indexOfIgnoreCase(String s, String t, int from) {
+    for (int i = from; i + t.length() <= s.length(); i++) {
+      if (s.regionMatches(true, i, t, 0, t.length())) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * 空白区切りの語を AND で。語の中は search_tsv と同じ切り方の語を隣接（<->）でつなぐ。
+   * 語の末尾は前方一致にする（英数字の書きかけと、連続の末尾だけに入っている 1 文字を拾う）。CJK の 2 文字は完全一致。
+   * 語は文字・数字だけなので、引用符で囲むだけでよい。
+   */
+  static String toTsQuery(List<String> terms) {
+    var parts = new ArrayList<String>();
+    for (String term : terms) {
+      List<String> tokens = CjkBigramTokenizer.sequence(term);
+      if (tokens.isEmpty()) continue;
+      var phrase = new StringJoiner(" <-> ", "(", ")");
+      for (int i = 0; i < tokens.size(); i++) {
+        String t = tokens.get(i);
+        boolean prefix = i == tokens.size() - 1 && !isCjkBigram(t);
+        phrase.add("'" + t + "'" + (prefix ? ":*" : ""));
+      }
+      parts.add(phrase.toString());
+    }
+    return String.join(" & ", parts);
+  }
+
+  private static boolean isCjkBigram(String token) {
+    return token.codePointCount(0, token.length()) == 2 && CjkBigramTokenizer.isCjk(token.codePointAt(0));
+  }
+}
@@ -0,0 +1,178 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.ClusterResyncEvent;
+import com.noteplace.readingsummary.search.dto.InstantHitResponse;
+import com.noteplace.readingsummary.search.repository.IndexStamp;
+import com.noteplace.readingsummary.search.repository.SearchRepository;
+import com.noteplace.readingsummary.summary.domain.Summary;
+
+/**
+ * 要約本文の組み込み転置インデックス（入力中検索用）。ユーザーごとに 1 シャード。
+ * シャードは初回検索時に、件数と最終更新日時が DB と一致すればスナップショット（mmap）から、
+ * 一致しなければ DB から作る。要約の保存・削除は読み込み済みのシャードにだけ反映する。
+ * スナップショットの読み書き・削除はユーザーごとのロック（ストライプ）で直列化する
+ * （追い出し中の書き込みを、同じユーザーの読み込みが途中で読まないように）。
+ */
+@Service
+public class SummaryIndexService {
+
+  private static final Logger log = LoggerFactory.getLogger(SummaryIndexService.class);
+
+  private final SearchRepository searchRepo;
+  private final Path dir;
+  private final int maxUsers;
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final ConcurrentHashMap<Long, IndexShard> shards = new ConcurrentHashMap<>();
+  private final Object[] fileLocks = new Object[LOCK_STRIPES];
+
+  public SummaryIndexService(
+      SearchRepository searchRepo,
+      @Value("${app.search.index.dir}") Path dir,
+      @Value("${app.search.index.max-users}") int maxUsers) throws IOException {
+    this.searchRepo = searchRepo;
+    this.dir = Files.createDirectories(dir);
+    this.maxUsers = maxUsers;
+    for (int i = 0; i < LOCK_STRIPES; i++) fileLocks[i] = new Object();
+  }
+
+  public List<InstantHitResponse> search(Long userId, String q, int limit) {
+    List<String> terms = CjkBigramTokenizer.tokenize(q);
+    if (terms.isEmpty()) return List.of();
+    return shard(userId).search(terms, limit).stream()
+        .map(h -> new InstantHitResponse(h.summaryId(), h.bookId()))
+        .toList();
+  }
+
+  public void onSummarySaved(Long userId, Summary s) {
+    // 未読み込みなら何もしない（次に読み込むときに DB から拾われる）
+    shards.computeIfPresent(userId, (id, shard) -> {
+      shard.put(s.getId(), s.getBookId(), s.getUpdatedAt().toEpochMilli(), s.getContentMd());
+      return shard;
+    });
+  }
+
+  public void onSummaryDeleted(Long userId, Long summaryId) {
+    shards.computeIfPresent(userId, (id, shard) -> {
+      shard.remove(summaryId);
+      return shard;
+    });
+  }
+
+  // 本の削除では要約がカスケードで消えるので、そのユーザーのシャードを捨てる。
+  // 他ノードでの要約の変更は、シャードを捨てて次の検索で読み直す（スナップショットは鮮度確認で弾かれる）
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    if (event.remote() && event.entity() == BookChangedEvent.Entity.SUMMARY) {
+      shards.remove(event.userId());
+      return;
+    }
+    if (!event.deleted()) return;
+    shards.remove(event.userId());
+    synchronized (fileLock(event.userId())) {
+      try {
+        Files.deleteIfExists(snapshotFile(event.userId()));
+      } catch (IOException e) {
+        log.warn("failed to delete index snapshot for user {}", event.userId(), e);
+      }
+    }
+  }
+
+  // 他ノードでの変更を取りこぼしたかもしれないので全部捨てる。
+  // 自ノードの変更は DB に入っているので、スナップショットを書かずに捨ててよい
+  @EventListener
+  public void onResync(ClusterResyncEvent event) {
+    shards.clear();
+  }
+
+  @Scheduled(fixedDelayString = "${app.search.index.snapshot-interval}")
+  public void snapshotDirty() {
+    for (Map.Entry<Long, IndexShard> e : shards.entrySet()) {
+      if (e.getValue().isDirty()) snapshot(e.getKey(), e.getValue());
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    snapshotDirty();
+  }
+
+  private IndexShard shard(Long userId) {
+    IndexShard shard = shards.get(userId);
+    if (shard != null) return shard;
+    if (shards.size() >= maxUsers) evictOne();
+    return shards.computeIfAbsent(userId, this::load);
+  }
+
+  private IndexShard load(Long userId) {
+    IndexStamp stamp = searchRepo.indexStamp(userId);
+    long lastUpdated = stamp.getLastUpdated() == null ? 0 : stamp.getLastUpdated().toEpochMilli();
+
+    Path file = snapshotFile(userId);
+    synchronized (fileLock(userId)) {
+      try {
+        IndexShard shard = IndexShard.readFrom(file);
+        if (shard.liveCount() == stamp.getTotal() && shard.maxUpdatedMillis() == lastUpdated) return shard;
+      } catch (NoSuchFileException e) {
+        // 初回
+      } catch (IOException e) {
+        log.warn("ignoring index snapshot {}", file, e);
+      }
+    }
+
+    var shard = new IndexShard();
+    for (Summary s : searchRepo.findSummariesByUserId(userId)) {
+      shard.put(s.getId(), s.getBookId(), s.getUpdatedAt().toEpochMilli(), s.getContentMd());
+    }
+    return shard;
+  }
+
+  // 先に外してから書く（書いている間に入った変更は鮮度確認で弾かれる）
+  private void evictOne() {
+    Iterator<Map.Entry<Long, IndexShard>> it = shards.entrySet().iterator();
+    if (it.hasNext()) {
+      var e = it.next();
+      it.remove();
+      if (e.getValue().isDirty()) snapshot(e.getKey(), e.getValue());
+    }
+  }
+
+  private void snapshot(Long userId, IndexShard shard) {
+    synchronized (fileLock(userId)) {
+      try {
+        shard.writeTo(snapshotFile(userId));
+      } catch (IOException e) {
+        log.warn("failed to write index snapshot for user {}", userId, e);
+      }
+    }
+  }
+
+  private Object fileLock(Long userId) {
+    return fileLocks[Long.hashCode(userId) & (LOCK_STRIPES - 1)];
+  }
+
+  private Path snapshotFile(Long userId) {
+    return dir.resolve(userId + ".idx");
+  }
+}
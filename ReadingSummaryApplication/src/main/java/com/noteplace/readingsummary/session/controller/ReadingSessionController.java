@@ -1,38 +1,42 @@
 package com.noteplace.readingsummary.session.controller;
 
-import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 import jakarta.validation.Valid;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
 
 import com.noteplace.readingsummary.auth.security.AuthUser;
-import com.noteplace.readingsummary.book.domain.Book;
-import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.common.pagination.Cursors;
 import com.noteplace.readingsummary.session.domain.ReadingSession;
 import com.noteplace.readingsummary.session.dto.CreateReadingSessionRequest;
 import com.noteplace.readingsummary.session.dto.ReadingSessionResponse;
 import com.noteplace.readingsummary.session.repository.ReadingSessionRepository;
+import com.noteplace.readingsummary.session.service.ReadingSessionService;
 
 @RestController
 @RequestMapping("/api/books/{bookId}/sessions")
 public class ReadingSessionController {
 
-  private final BookRepository bookRepo;
   private final ReadingSessionRepository sessionRepo;
+  private final ReadingSessionService sessionService;
+  private final BookOwnershipCache ownership;
 
-  public ReadingSessionController(BookRepository bookRepo, ReadingSessionRepository sessionRepo) {
-    this.bookRepo = bookRepo;
+  public ReadingSessionController(ReadingSessionRepository sessionRepo, ReadingSessionService sessionService,
+                                  BookOwnershipCache ownership) {
     this.sessionRepo = sessionRepo;
+    this.sessionService = sessionService;
+    this.ownership = ownership;
   }
 
   @PostMapping
@@ -41,42 +45,28 @@ public class ReadingSessionController {
       @PathVariable Long bookId,
       @Valid @RequestBody CreateReadingSessionRequest req
   ) {
-    Book book = bookRepo.findByIdAndUserId(bookId, user.id())
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
-
-    ReadingSession s = new ReadingSession();
-    s.setBookId(bookId);
-    s.setSessionDate(req.sessionDate());
-    s.setMinutes(req.minutes());
-    s.setPagesRead(req.pagesRead());
-    s.setMemo(req.memo());
-    s.setCreatedAt(Instant.now());
-    sessionRepo.save(s);
-
-    // pagesRead が入っていれば currentPage を増やす（Backlog 3の範囲で最低限）
-    if (req.pagesRead() != null && req.pagesRead() > 0) {
-      int next = (book.getCurrentPage() == null ? 0 : book.getCurrentPage()) + req.pagesRead();
-      Integer total = book.getTotalPages();
-      if (total != null && next > total) {
-        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "currentPage must be <= totalPages");
-      }
-      book.setCurrentPage(next);
-      bookRepo.save(book);
-    }
-
-    return toRes(s);
+    return toRes(sessionService.create(user.id(), bookId, req));
   }
 
   @GetMapping
-  public List<ReadingSessionResponse> list(
+  public CursorPage<ReadingSessionResponse> list(
       @AuthenticationPrincipal AuthUser user,
-      @PathVariable Long bookId
+      @PathVariable Long bookId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit
   ) {
-    bookRepo.findByIdAndUserId(bookId, user.id())
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
+    ownership.ensureOwned(user.id(), bookId);
 
-    return sessionRepo.findByBookIdOrderBySessionDateDescCreatedAtDesc(bookId)
-        .stream().map(this::toRes).toList();
+    int n = Cursors.clamp(limit);
+    List<ReadingSessionResponse> rows;
+    if (cursor == null) {
+      rows = sessionRepo.findPage(bookId, Cursors.fetchLimit(n));
+    } else {
+      String[] k = Cursors.decode(cursor, 2);
+      rows = sessionRepo.findPageAfter(bookId,
+          Cursors.parse(k[0], LocalDate::parse), Cursors.parse(k[1], Long::valueOf), Cursors.fetchLimit(n));
+    }
+    return CursorPage.of(rows, n, s -> Cursors.encode(s.sessionDate(), s.id()));
   }
 
   private ReadingSessionResponse toRes(ReadingSession s) {
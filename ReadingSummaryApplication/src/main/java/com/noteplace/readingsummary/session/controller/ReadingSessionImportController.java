@@ -0,0 +1,30 @@
+package com.noteplace.readingsummary.session.controller;
+
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.session.dto.SessionImportResponse;
+import com.noteplace.readingsummary.session.service.ReadingSessionImportService;
+
+@RestController
+@RequestMapping("/api/sessions")
+public class ReadingSessionImportController {
+
+  private final ReadingSessionImportService importService;
+
+  public ReadingSessionImportController(ReadingSessionImportService importService) {
+    this.importService = importService;
+  }
+
+  // 本文は JSON 配列でも NDJSON でもよい（バインドせずにストリームのまま渡す）
+  @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+  public SessionImportResponse importSessions(@AuthenticationPrincipal AuthUser user, InputStream body) {
+    return importService.importSessions(user.id(), body);
+  }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import lombok.Getter;
@@ -19,7 +20,8 @@ import lombok.Setter;
 public class ReadingSession {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reading_sessions_seq")
+  @SequenceGenerator(name = "reading_sessions_seq", sequenceName = "reading_sessions_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "book_id", nullable = false)
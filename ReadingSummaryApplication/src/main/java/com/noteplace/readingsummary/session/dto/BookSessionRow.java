@@ -0,0 +1,17 @@
+package com.noteplace.readingsummary.session.dto;
+
+import java.time.LocalDate;
+
+// 複数冊のセッションをまとめて読むとき用（どの本の行か付き）
+public record BookSessionRow(
+    Long bookId,
+    Long id,
+    LocalDate sessionDate,
+    Integer minutes,
+    Integer pagesRead,
+    String memo
+) {
+  public ReadingSessionResponse toResponse() {
+    return new ReadingSessionResponse(id, sessionDate, minutes, pagesRead, memo);
+  }
+}
@@ -0,0 +1,14 @@
+package com.noteplace.readingsummary.session.dto;
+
+import java.util.List;
+
+/**
+ * 一括インポートの結果。errors は先頭から最大 100 件（row は 1 始まり）。
+ */
+public record SessionImportResponse(
+    int imported,
+    int failed,
+    List<RowError> errors
+) {
+  public record RowError(int row, String message) {}
+}
@@ -1,16 +1,76 @@
 package com.noteplace.readingsummary.session.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.noteplace.readingsummary.session.domain.ReadingSession;
+import com.noteplace.readingsummary.session.dto.BookSessionRow;
+import com.noteplace.readingsummary.session.dto.ReadingSessionResponse;
 
 public interface ReadingSessionRepository extends JpaRepository<ReadingSession, Long> {
-  List<ReadingSession> findByBookIdOrderBySessionDateDescCreatedAtDesc(Long bookId);
+  // キーセットページング（session_date 降順・id 降順）。idx_reading_sessions_book_date を使う。
+  // DTO で受けて永続化コンテキストに溜めない。readOnly はレプリカへ回る
+  @Transactional(readOnly = true)
+  @Query("""
+    select new com.noteplace.readingsummary.session.dto.ReadingSessionResponse(
+      s.id, s.sessionDate, s.minutes, s.pagesRead, s.memo)
+    from ReadingSession s
+    where s.bookId = :bookId
+    order by s.sessionDate desc, s.id desc
+  """)
+  List<ReadingSessionResponse> findPage(@Param("bookId") Long bookId, Limit limit);
+
+  @Transactional(readOnly = true)
+  @Query("""
+    select new com.noteplace.readingsummary.session.dto.ReadingSessionResponse(
+      s.id, s.sessionDate, s.minutes, s.pagesRead, s.memo)
+    from ReadingSession s
+    where s.bookId = :bookId
+      and (s.sessionDate < :date or (s.sessionDate = :date and s.id < :id))
+    order by s.sessionDate desc, s.id desc
+  """)
+  List<ReadingSessionResponse> findPageAfter(
+      @Param("bookId") Long bookId,
+      @Param("date") LocalDate date,
+      @Param("id") Long id,
+      Limit limit
+  );
+
+  // 複数冊をまたいだキーセットページング（book_id 昇順、同じ本の中は findPage と同じ順）。一括エクスポート用
+  @Transactional(readOnly = true)
+  @Query("""
+    select new com.noteplace.readingsummary.session.dto.BookSessionRow(
+      s.bookId, s.id, s.sessionDate, s.minutes, s.pagesRead, s.memo)
+    from ReadingSession s
+    where s.bookId in :bookIds
+    order by s.bookId, s.sessionDate desc, s.id desc
+  """)
+  List<BookSessionRow> findPageByBookIds(@Param("bookIds") Collection<Long> bookIds, Limit limit);
+
+  @Transactional(readOnly = true)
+  @Query("""
+    select new com.noteplace.readingsummary.session.dto.BookSessionRow(
+      s.bookId, s.id, s.sessionDate, s.minutes, s.pagesRead, s.memo)
+    from ReadingSession s
+    where s.bookId in :bookIds
+      and (s.bookId > :bookId
+        or (s.bookId = :bookId and (s.sessionDate < :date or (s.sessionDate = :date and s.id < :id))))
+    order by s.bookId, s.sessionDate desc, s.id desc
+  """)
+  List<BookSessionRow> findPageByBookIdsAfter(
+      @Param("bookIds") Collection<Long> bookIds,
+      @Param("bookId") Long bookId,
+      @Param("date") LocalDate date,
+      @Param("id") Long id,
+      Limit limit
+  );
 
   @Query("""
 		    select coalesce(sum(s.minutes), 0)
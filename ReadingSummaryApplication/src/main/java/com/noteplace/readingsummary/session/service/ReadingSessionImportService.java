@@ -0,0 +1,180 @@
+package com.noteplace.readingsummary.session.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.BookChangedEvent.Entity;
+import com.noteplace.readingsummary.session.dto.ImportSessionRow;
+import com.noteplace.readingsummary.session.dto.SessionImportResponse;
+import com.noteplace.readingsummary.session.dto.SessionImportResponse.RowError;
+import com.noteplace.readingsummary.stats.service.ReadingRollupService;
+import com.noteplace.readingsummary.stats.service.ReadingStatsService;
+
+/**
+ * 読書セッションの一括インポート。
+ * JSON 配列・NDJSON のどちらも 1 行ずつ読みながら検証し、正しい行だけを JDBC バッチで入れる。
+ */
+@Service
+public class ReadingSessionImportService {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final int MAX_ERRORS = 100;
+
+  private static final String INSERT_SQL = """
+      insert into reading_sessions (book_id, session_date, minutes, pages_read, memo, created_at)
+      values (?, ?, ?, ?, ?, ?)
+      """;
+
+  // 過去分の取り込みなので totalPages を超える分は切り詰める
+  private static final String ADD_PAGES_SQL = """
+      update books
+         set current_page = least(coalesce(current_page, 0)::bigint + ?, coalesce(total_pages, 2147483647))
+       where id = ?
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final ObjectReader reader;
+  private final Validator validator;
+  private final BookOwnershipCache ownership;
+  private final ReadingStatsService statsService;
+  private final ReadingRollupService rollupService;
+  private final ApplicationEventPublisher events;
+
+  public ReadingSessionImportService(JdbcTemplate jdbc, ObjectMapper mapper, Validator validator,
+                                     BookOwnershipCache ownership, ReadingStatsService statsService,
+                                     ReadingRollupService rollupService, ApplicationEventPublisher events) {
+    this.jdbc = jdbc;
+    this.reader = mapper.readerFor(ImportSessionRow.class);
+    this.validator = validator;
+    this.ownership = ownership;
+    this.statsService = statsService;
+    this.rollupService = rollupService;
+    this.events = events;
+  }
+
+  @Transactional
+  public SessionImportResponse importSessions(Long userId, InputStream body) {
+    var batch = new ArrayList<ImportSessionRow>(BATCH_SIZE);
+    // 1 冊に大量の行があっても溢れないよう long で足す（書き込みは SQL 側で total_pages か int の上限に収める）
+    var pagesByBook = new HashMap<Long, Long>();
+    var errors = new ArrayList<RowError>();
+    int imported = 0;
+    int failed = 0;
+    int row = 0;
+    Timestamp now = Timestamp.from(Instant.now());
+
+    // readValues は先頭が配列なら要素を、そうでなければ空白区切りの値（NDJSON）を順に返す
+    try (MappingIterator<ImportSessionRow> it = reader.readValues(body)) {
+      while (true) {
+        row++;
+        ImportSessionRow r;
+        try {
+          if (!it.hasNextValue()) break;
+          r = it.nextValue();
+        } catch (JsonParseException e) {
+          // 構文エラーの後ろは読めないのでここで打ち切る
+          failed++;
+          addError(errors, row, "malformed json: " + e.getOriginalMessage());
+          break;
+        } catch (JsonMappingException e) {
+          failed++;
+          addError(errors, row, "invalid row: " + e.getOriginalMessage());
+          continue;
+        }
+
+        String error = validate(userId, r);
+        if (error != null) {
+          failed++;
+          addError(errors, row, error);
+          continue;
+        }
+
+        batch.add(r);
+        pagesByBook.merge(r.bookId(), r.pagesRead() == null ? 0L : r.pagesRead(), Long::sum);
+        if (batch.size() == BATCH_SIZE) {
+          imported += flush(batch, now);
+        }
+      }
+      imported += flush(batch, now);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    // currentPage は本ごとに 1 文
+    List<Object[]> pageArgs = pagesByBook.entrySet().stream()
+        .filter(e -> e.getValue() > 0)
+        .map(e -> new Object[] { e.getValue(), e.getKey() })
+        .toList();
+    if (!pageArgs.isEmpty()) {
+      jdbc.batchUpdate(ADD_PAGES_SQL, pageArgs, new int[] { Types.BIGINT, Types.BIGINT });
+    }
+
+    if (imported > 0) {
+      statsService.onSessionsImported(userId);
+      rollupService.rebuild(userId);
+      for (Long bookId : pagesByBook.keySet()) {
+        events.publishEvent(BookChangedEvent.changed(Entity.SESSION, userId, bookId));
+      }
+    }
+    return new SessionImportResponse(imported, failed, errors);
+  }
+
+  private String validate(Long userId, ImportSessionRow r) {
+    if (r == null) return "row must be an object";
+    for (ConstraintViolation<ImportSessionRow> v : validator.validate(r)) {
+      return v.getPropertyPath() + ": " + v.getMessage();
+    }
+    try {
+      ownership.ensureOwned(userId, r.bookId());
+    } catch (ResponseStatusException e) {
+      return "book not found";
+    }
+    return null;
+  }
+
+  private int flush(List<ImportSessionRow> batch, Timestamp now) {
+    if (batch.isEmpty()) return 0;
+    jdbc.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, r) -> {
+      ps.setLong(1, r.bookId());
+      ps.setDate(2, Date.valueOf(r.sessionDate()));
+      ps.setInt(3, r.minutes());
+      if (r.pagesRead() == null) ps.setNull(4, Types.INTEGER);
+      else ps.setInt(4, r.pagesRead());
+      if (r.memo() == null) ps.setNull(5, Types.VARCHAR);
+      else ps.setString(5, r.memo());
+      ps.setTimestamp(6, now);
+    });
+    int n = batch.size();
+    batch.clear();
+    return n;
+  }
+
+  private static void addError(List<RowError> errors, int row, String message) {
+    if (errors.size() < MAX_ERRORS) errors.add(new RowError(row, message));
+  }
+}
@@ -0,0 +1,70 @@
+package com.noteplace.readingsummary.session.service;
+
+import java.time.Instant;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.BookChangedEvent.Entity;
+import com.noteplace.readingsummary.session.domain.ReadingSession;
+import com.noteplace.readingsummary.session.dto.CreateReadingSessionRequest;
+import com.noteplace.readingsummary.session.repository.ReadingSessionRepository;
+import com.noteplace.readingsummary.stats.service.ReadingRollupService;
+import com.noteplace.readingsummary.stats.service.ReadingStatsService;
+
+@Service
+public class ReadingSessionService {
+
+  private final BookRepository bookRepo;
+  private final ReadingSessionRepository sessionRepo;
+  private final BookOwnershipCache ownership;
+  private final ReadingStatsService statsService;
+  private final ReadingRollupService rollupService;
+  private final ApplicationEventPublisher events;
+
+  public ReadingSessionService(BookRepository bookRepo, ReadingSessionRepository sessionRepo,
+                               BookOwnershipCache ownership, ReadingStatsService statsService,
+                               ReadingRollupService rollupService, ApplicationEventPublisher events) {
+    this.bookRepo = bookRepo;
+    this.sessionRepo = sessionRepo;
+    this.ownership = ownership;
+    this.statsService = statsService;
+    this.rollupService = rollupService;
+    this.events = events;
+  }
+
+  /**
+   * セッションの追加と currentPage の加算を 1 トランザクションで行う。
+   * totalPages を超える場合はセッションも入れずに 400。
+   */
+  @Transactional
+  public ReadingSession create(Long userId, Long bookId, CreateReadingSessionRequest req) {
+    ownership.ensureOwned(userId, bookId);
+
+    // 条件付き UPDATE を先に流す（行ロックで同時投稿も直列化される）
+    if (req.pagesRead() != null && req.pagesRead() > 0
+        && bookRepo.addPages(bookId, req.pagesRead()) == 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "currentPage must be <= totalPages");
+    }
+
+    ReadingSession s = new ReadingSession();
+    s.setBookId(bookId);
+    s.setSessionDate(req.sessionDate());
+    s.setMinutes(req.minutes());
+    s.setPagesRead(req.pagesRead());
+    s.setMemo(req.memo());
+    s.setCreatedAt(Instant.now());
+    sessionRepo.save(s);
+
+    statsService.onSessionCreated(userId, s.getSessionDate(), s.getMinutes());
+    rollupService.onSessionCreated(userId, bookId, s.getSessionDate(), s.getMinutes(), s.getPagesRead());
+    events.publishEvent(BookChangedEvent.changed(Entity.SESSION, userId, bookId));
+    return s;
+  }
+}
@@ -0,0 +1,102 @@
+package com.noteplace.readingsummary.stats.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 1 ユーザー分の「読んだ日」カレンダー。1 年を long[6]（366 bit）で持ち、
+ * day-of-year (0 始まり) を bit 番号にする。streak や日数はビット演算だけで求める。
+ */
+public class ReadingCalendar {
+
+  public static final int WORDS_PER_YEAR = 6;
+  public static final int BYTES_PER_YEAR = WORDS_PER_YEAR * Long.BYTES;
+
+  private final Map<Integer, long[]> years = new HashMap<>();
+
+  public synchronized void putYear(int year, byte[] days) {
+    years.put(year, toWords(days));
+  }
+
+  public synchronized void mark(LocalDate date) {
+    int i = date.getDayOfYear() - 1;
+    years.computeIfAbsent(date.getYear(), y -> new long[WORDS_PER_YEAR])[i >>> 6] |= 1L << i;
+  }
+
+  public synchronized boolean isRead(LocalDate date) {
+    long[] w = years.get(date.getYear());
+    int i = date.getDayOfYear() - 1;
+    return w != null && (w[i >>> 6] & (1L << i)) != 0;
+  }
+
+  /** date を含めてさかのぼった連続日数（date に読んでいなければ 0）。年をまたいでも数える。 */
+  public synchronized int streakEndingAt(LocalDate date) {
+    int year = date.getYear();
+    int idx = date.getDayOfYear() - 1;
+    int n = 0;
+    while (true) {
+      long[] w = years.get(year);
+      if (w == null) return n;
+      int run = runDown(w, idx);
+      n += run;
+      if (run <= idx) return n; // 年の途中で途切れた
+      year--;
+      idx = Year.of(year).length() - 1;
+    }
+  }
+
+  /** [from, to] の読書日数。同じ年の範囲のみ。 */
+  public synchronized int countDays(LocalDate from, LocalDate to) {
+    if (to.isBefore(from)) return 0;
+    if (from.getYear() != to.getYear()) throw new IllegalArgumentException("range must be within a year");
+    long[] w = years.get(from.getYear());
+    if (w == null) return 0;
+    int lo = from.getDayOfYear() - 1;
+    int hi = to.getDayOfYear() - 1;
+    int n = 0;
+    for (int wi = lo >>> 6; wi <= hi >>> 6; wi++) {
+      long mask = -1L;
+      if (wi == lo >>> 6) mask &= -1L << lo;
+      if (wi == hi >>> 6) mask &= -1L >>> (63 - (hi & 63));
+      n += Long.bitCount(w[wi] & mask);
+    }
+    return n;
+  }
+
+  /** その年のビット列のコピー（無ければ全 0）。 */
+  public synchronized long[] yearWords(int year) {
+    long[] w = years.get(year);
+    return w == null ? new long[WORDS_PER_YEAR] : w.clone();
+  }
+
+  // bit idx から下位へ向かって連続する 1 の数
+  private static int runDown(long[] w, int idx) {
+    int wi = idx >>> 6;
+    int bi = idx & 63;
+    // bit idx を最上位に寄せると、連続する 1 の数 = ~x の先頭 0 の数
+    int ones = Long.numberOfLeadingZeros(~(w[wi] << (63 - bi)));
+    if (ones <= bi) return ones;
+    int n = bi + 1;
+    for (wi--; wi >= 0; wi--) {
+      if (w[wi] != -1L) return n + Long.numberOfLeadingZeros(~w[wi]);
+      n += 64;
+    }
+    return n;
+  }
+
+  public static long[] toWords(byte[] days) {
+    long[] w = new long[WORDS_PER_YEAR];
+    ByteBuffer.wrap(days).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(w, 0, Math.min(WORDS_PER_YEAR, days.length / Long.BYTES));
+    return w;
+  }
+
+  public static byte[] toBytes(long[] words) {
+    ByteBuffer buf = ByteBuffer.allocate(BYTES_PER_YEAR).order(ByteOrder.LITTLE_ENDIAN);
+    buf.asLongBuffer().put(words);
+    return buf.array();
+  }
+}
@@ -0,0 +1,41 @@
+package com.noteplace.readingsummary.stats.domain;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "reading_calendars")
+@IdClass(ReadingCalendarYear.Key.class)
+@Getter @Setter
+public class ReadingCalendarYear {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Id
+  @Column(name = "year")
+  private Integer year;
+
+  @Column(nullable = false)
+  private byte[] days; // ReadingCalendar.BYTES_PER_YEAR bytes, little-endian
+
+  @Getter @Setter
+  @NoArgsConstructor @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+    private Long userId;
+    private Integer year;
+  }
+}
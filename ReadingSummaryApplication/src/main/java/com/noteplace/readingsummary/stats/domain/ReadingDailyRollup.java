@@ -0,0 +1,56 @@
+package com.noteplace.readingsummary.stats.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "reading_daily_rollups")
+@IdClass(ReadingDailyRollup.Key.class)
+@Getter @Setter
+public class ReadingDailyRollup {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Id
+  @Column(name = "day")
+  private LocalDate day;
+
+  @Id
+  @Column(name = "book_id")
+  private Long bookId;
+
+  @Column(nullable = false)
+  private Long minutes;
+
+  @Column(nullable = false)
+  private Long pages;
+
+  @Column(name = "paged_minutes", nullable = false)
+  private Long pagedMinutes;
+
+  @Column(nullable = false)
+  private Integer sessions;
+
+  @Getter @Setter
+  @NoArgsConstructor @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+    private Long userId;
+    private LocalDate day;
+    private Long bookId;
+  }
+}
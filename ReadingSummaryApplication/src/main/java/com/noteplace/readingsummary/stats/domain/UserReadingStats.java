@@ -0,0 +1,46 @@
+package com.noteplace.readingsummary.stats.domain;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "user_reading_stats")
+@Getter @Setter
+public class UserReadingStats {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Column(name = "total_books", nullable = false)
+  private long totalBooks;
+
+  @Column(name = "unread_books", nullable = false)
+  private long unreadBooks;
+
+  @Column(name = "reading_books", nullable = false)
+  private long readingBooks;
+
+  @Column(name = "done_books", nullable = false)
+  private long doneBooks;
+
+  @Column(name = "total_summaries", nullable = false)
+  private long totalSummaries;
+
+  @Column(name = "month_start", nullable = false)
+  private LocalDate monthStart;
+
+  @Column(name = "month_minutes", nullable = false)
+  private long monthMinutes;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+}
@@ -0,0 +1,53 @@
+package com.noteplace.readingsummary.stats.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.noteplace.readingsummary.stats.domain.ReadingCalendarYear;
+
+public interface ReadingCalendarRepository extends JpaRepository<ReadingCalendarYear, ReadingCalendarYear.Key> {
+
+  List<ReadingCalendarYear> findByUserId(Long userId);
+
+  // set_bit は bit n を byte n/8 の下位から数えるので、ReadingCalendar の little-endian と一致する
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    insert into reading_calendars (user_id, year, days)
+    values (:userId, :year, set_bit(decode(repeat('00', 48), 'hex'), :bit, 1))
+    on conflict (user_id, year) do update
+      set days = set_bit(reading_calendars.days, :bit, 1)
+  """)
+  int markDay(@Param("userId") Long userId, @Param("year") int year, @Param("bit") int bit);
+
+  @Modifying
+  @Query(nativeQuery = true, value = "delete from reading_calendars where user_id = :userId")
+  int deleteByUser(@Param("userId") Long userId);
+
+  // V6 の埋め戻しと同じ組み立てを 1 ユーザー分だけ行う
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    insert into reading_calendars (user_id, year, days)
+    with days as (
+      select distinct extract(year from s.session_date)::int as yr,
+             extract(doy from s.session_date)::int - 1 as idx
+      from reading_sessions s
+      join books b on b.id = s.book_id
+      where b.user_id = :userId
+    ), bytes as (
+      select yr, idx / 8 as byte_no, sum(1 << (idx % 8))::int as val
+      from days
+      group by yr, idx / 8
+    )
+    select :userId, k.yr,
+           decode(string_agg(lpad(to_hex(coalesce(bt.val, 0)), 2, '0'), '' order by g.n), 'hex')
+    from (select distinct yr from bytes) k
+    cross join generate_series(0, 47) as g(n)
+    left join bytes bt on bt.yr = k.yr and bt.byte_no = g.n
+    group by k.yr
+  """)
+  int rebuildForUser(@Param("userId") Long userId);
+}
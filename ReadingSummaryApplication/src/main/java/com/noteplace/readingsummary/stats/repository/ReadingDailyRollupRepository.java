@@ -0,0 +1,107 @@
+package com.noteplace.readingsummary.stats.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noteplace.readingsummary.stats.domain.ReadingDailyRollup;
+
+public interface ReadingDailyRollupRepository extends JpaRepository<ReadingDailyRollup, ReadingDailyRollup.Key> {
+
+  // 同じ日・同じ本の行があれば足し込む（同時投稿でも 1 文なので取りこぼさない）
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    insert into reading_daily_rollups (user_id, book_id, day, minutes, pages, paged_minutes, sessions)
+    values (:userId, :bookId, :day, :minutes, :pages, :pagedMinutes, 1)
+    on conflict (user_id, day, book_id) do update
+      set minutes = reading_daily_rollups.minutes + excluded.minutes,
+          pages = reading_daily_rollups.pages + excluded.pages,
+          paged_minutes = reading_daily_rollups.paged_minutes + excluded.paged_minutes,
+          sessions = reading_daily_rollups.sessions + 1
+  """)
+  int add(
+      @Param("userId") Long userId,
+      @Param("bookId") Long bookId,
+      @Param("day") LocalDate day,
+      @Param("minutes") int minutes,
+      @Param("pages") int pages,
+      @Param("pagedMinutes") int pagedMinutes
+  );
+
+  @Modifying
+  @Query(nativeQuery = true, value = "delete from reading_daily_rollups where user_id = :userId")
+  int deleteByUser(@Param("userId") Long userId);
+
+  // V9 の埋め戻しと同じ集計を 1 ユーザー分だけ行う。
+  // delete の後に add() が入れた行は、この集計に含まれている（コミット済みのセッションは見える）ので上書きする。
+  // 未コミットのセッションの add() は、この行のロックを待ってから足し込む
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    insert into reading_daily_rollups (user_id, book_id, day, minutes, pages, paged_minutes, sessions)
+    select b.user_id, s.book_id, s.session_date,
+           sum(s.minutes),
+           sum(coalesce(s.pages_read, 0)),
+           sum(case when s.pages_read is not null then s.minutes else 0 end),
+           count(*)
+    from reading_sessions s
+    join books b on b.id = s.book_id
+    where b.user_id = :userId
+    group by b.user_id, s.book_id, s.session_date
+    on conflict (user_id, day, book_id) do update
+      set minutes = excluded.minutes,
+          pages = excluded.pages,
+          paged_minutes = excluded.paged_minutes,
+          sessions = excluded.sessions
+  """)
+  int rebuildForUser(@Param("userId") Long userId);
+
+  // ---- 分析 API 用（readOnly はレプリカへ回る） ----
+
+  // unit は day / week / month（week は月曜始まり）
+  @Transactional(readOnly = true)
+  @Query(nativeQuery = true, value = """
+    select date_trunc(:unit, r.day::timestamp)::date as bucket,
+           null as "bookId", null as "bookTitle",
+           sum(r.minutes)::bigint as minutes,
+           sum(r.pages)::bigint as pages,
+           sum(r.paged_minutes)::bigint as "pagedMinutes",
+           sum(r.sessions)::bigint as sessions
+    from reading_daily_rollups r
+    where r.user_id = :userId
+      and r.day between :from and :to
+    group by 1
+    order by 1
+  """)
+  List<RollupTotalsRow> sumByBucket(
+      @Param("userId") Long userId,
+      @Param("unit") String unit,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to
+  );
+
+  @Transactional(readOnly = true)
+  @Query(nativeQuery = true, value = """
+    select null as bucket,
+           r.book_id as "bookId", b.title as "bookTitle",
+           sum(r.minutes)::bigint as minutes,
+           sum(r.pages)::bigint as pages,
+           sum(r.paged_minutes)::bigint as "pagedMinutes",
+           sum(r.sessions)::bigint as sessions
+    from reading_daily_rollups r
+    join books b on b.id = r.book_id
+    where r.user_id = :userId
+      and r.day between :from and :to
+    group by r.book_id, b.title
+    order by minutes desc, r.book_id
+  """)
+  List<RollupTotalsRow> sumByBook(
+      @Param("userId") Long userId,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to
+  );
+}
@@ -0,0 +1,17 @@
+package com.noteplace.readingsummary.stats.repository;
+
+import java.time.LocalDate;
+
+/**
+ * reading_daily_rollups の集計結果。bucket はバケットの開始日（本別の集計では null）、
+ * bookId / bookTitle は本別の集計のときだけ入る。
+ */
+public interface RollupTotalsRow {
+  LocalDate getBucket();
+  Long getBookId();
+  String getBookTitle();
+  long getMinutes();
+  long getPages();
+  long getPagedMinutes();
+  long getSessions();
+}
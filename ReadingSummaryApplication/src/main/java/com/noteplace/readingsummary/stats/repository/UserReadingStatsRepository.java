@@ -0,0 +1,93 @@
+package com.noteplace.readingsummary.stats.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.noteplace.readingsummary.stats.domain.UserReadingStats;
+
+/**
+ * 更新系はすべて差分を 1 文で加算する（同時更新でも取りこぼさない）。
+ * 戻り値が 0 のときは行がまだ無いので、呼び出し側で rebuild する。
+ */
+public interface UserReadingStatsRepository extends JpaRepository<UserReadingStats, Long> {
+
+  @Query("select s.userId from UserReadingStats s order by s.userId")
+  List<Long> findAllUserIds();
+
+  @Modifying(clearAutomatically = true)
+  @Query(nativeQuery = true, value = """
+    update user_reading_stats set
+      total_books = total_books + :total,
+      unread_books = unread_books + :unread,
+      reading_books = reading_books + :reading,
+      done_books = done_books + :done,
+      updated_at = now()
+    where user_id = :userId
+  """)
+  int addBooks(
+      @Param("userId") Long userId,
+      @Param("total") int total,
+      @Param("unread") int unread,
+      @Param("reading") int reading,
+      @Param("done") int done
+  );
+
+  @Modifying(clearAutomatically = true)
+  @Query(nativeQuery = true, value = """
+    update user_reading_stats set
+      total_summaries = total_summaries + :delta,
+      updated_at = now()
+    where user_id = :userId
+  """)
+  int addSummaries(@Param("userId") Long userId, @Param("delta") int delta);
+
+  // month_start が古ければ今月分として 0 から数え直す
+  @Modifying(clearAutomatically = true)
+  @Query(nativeQuery = true, value = """
+    update user_reading_stats set
+      month_minutes = (case when month_start = :monthStart then month_minutes else 0 end) + :minutes,
+      month_start = :monthStart,
+      updated_at = now()
+    where user_id = :userId
+  """)
+  int addMonthMinutes(
+      @Param("userId") Long userId,
+      @Param("monthStart") LocalDate monthStart,
+      @Param("minutes") int minutes
+  );
+
+  @Modifying(clearAutomatically = true)
+  @Query(nativeQuery = true, value = """
+    insert into user_reading_stats (
+      user_id, total_books, unread_books, reading_books, done_books, total_summaries,
+      month_start, month_minutes, updated_at
+    ) values (
+      :userId, :totalBooks, :unreadBooks, :readingBooks, :doneBooks, :totalSummaries,
+      :monthStart, :monthMinutes, now()
+    )
+    on conflict (user_id) do update set
+      total_books = excluded.total_books,
+      unread_books = excluded.unread_books,
+      reading_books = excluded.reading_books,
+      done_books = excluded.done_books,
+      total_summaries = excluded.total_summaries,
+      month_start = excluded.month_start,
+      month_minutes = excluded.month_minutes,
+      updated_at = excluded.updated_at
+  """)
+  int upsert(
+      @Param("userId") Long userId,
+      @Param("totalBooks") long totalBooks,
+      @Param("unreadBooks") long unreadBooks,
+      @Param("readingBooks") long readingBooks,
+      @Param("doneBooks") long doneBooks,
+      @Param("totalSummaries") long totalSummaries,
+      @Param("monthStart") LocalDate monthStart,
+      @Param("monthMinutes") long monthMinutes
+  );
+}
@@ -0,0 +1,104 @@
+package com.noteplace.readingsummary.stats.service;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.ClusterResyncEvent;
+import com.noteplace.readingsummary.stats.domain.ReadingCalendar;
+import com.noteplace.readingsummary.stats.domain.ReadingCalendarYear;
+import com.noteplace.readingsummary.stats.repository.ReadingCalendarRepository;
+
+/**
+ * ユーザーごとの ReadingCalendar をメモリに持ち、reading_calendars (bytea) に永続化する。
+ * DB 側は set_bit で 1 文更新するので、複数インスタンスからの同時書き込みでも bit を取りこぼさない。
+ */
+@Service
+public class ReadingCalendarService {
+
+  private final ReadingCalendarRepository calendarRepo;
+  private final int maxCachedUsers;
+
+  private final ConcurrentHashMap<Long, ReadingCalendar> cache = new ConcurrentHashMap<>();
+
+  public ReadingCalendarService(ReadingCalendarRepository calendarRepo,
+                                @Value("${app.calendar.cache-size}") int maxCachedUsers) {
+    this.calendarRepo = calendarRepo;
+    this.maxCachedUsers = maxCachedUsers;
+  }
+
+  public ReadingCalendar get(Long userId) {
+    ReadingCalendar cal = cache.get(userId);
+    if (cal != null) return cal;
+    if (cache.size() >= maxCachedUsers) evictOne();
+    // markRead はコミット後に computeIfPresent で反映する。読み込みとは同じキーで直列化されるので、
+    // コミット前の状態を読み込んだ場合でも、その日はコミット後に足される
+    return cache.computeIfAbsent(userId, this::load);
+  }
+
+  @Transactional
+  public void markRead(Long userId, LocalDate date) {
+    calendarRepo.markDay(userId, date.getYear(), date.getDayOfYear() - 1);
+    afterCommit(() -> cache.computeIfPresent(userId, (id, cal) -> {
+      cal.mark(date);
+      return cal;
+    }));
+  }
+
+  /** セッションの削除などで bit を戻す必要があるときに、元テーブルから作り直す。 */
+  @Transactional
+  public void rebuild(Long userId) {
+    calendarRepo.deleteByUser(userId);
+    calendarRepo.rebuildForUser(userId);
+    afterCommit(() -> cache.remove(userId));
+  }
+
+  // 他ノードで記録されたセッションはこのノードのカレンダーに反映されていないので読み直させる
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookChanged(BookChangedEvent event) {
+    if (event.remote() && event.entity() != BookChangedEvent.Entity.SUMMARY) cache.remove(event.userId());
+  }
+
+  @EventListener
+  public void onResync(ClusterResyncEvent event) {
+    cache.clear();
+  }
+
+  // メモリ上の変更はコミットされてから（ロールバックされた日を残さない）
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private ReadingCalendar load(Long userId) {
+    var cal = new ReadingCalendar();
+    for (ReadingCalendarYear y : calendarRepo.findByUserId(userId)) {
+      cal.putYear(y.getYear(), y.getDays());
+    }
+    return cal;
+  }
+
+  private void evictOne() {
+    Iterator<Long> it = cache.keySet().iterator();
+    if (it.hasNext()) {
+      cache.remove(it.next());
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.noteplace.readingsummary.stats.service;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noteplace.readingsummary.stats.repository.ReadingDailyRollupRepository;
+
+/**
+ * reading_daily_rollups（ユーザー・本・日ごとの読書量）を保守する。
+ * セッション追加時に 1 行ずつ足し込み、一括インポート・定期補正では元テーブルから作り直す。
+ */
+@Service
+public class ReadingRollupService {
+
+  private final ReadingDailyRollupRepository rollupRepo;
+
+  public ReadingRollupService(ReadingDailyRollupRepository rollupRepo) {
+    this.rollupRepo = rollupRepo;
+  }
+
+  @Transactional
+  public void onSessionCreated(Long userId, Long bookId, LocalDate date, int minutes, Integer pagesRead) {
+    int pages = pagesRead == null ? 0 : pagesRead;
+    int pagedMinutes = pagesRead == null ? 0 : minutes;
+    rollupRepo.add(userId, bookId, date, minutes, pages, pagedMinutes);
+  }
+
+  @Transactional
+  public void rebuild(Long userId) {
+    rollupRepo.deleteByUser(userId);
+    rollupRepo.rebuildForUser(userId);
+  }
+}
@@ -0,0 +1,48 @@
+package com.noteplace.readingsummary.stats.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.noteplace.readingsummary.stats.repository.UserReadingStatsRepository;
+
+/**
+ * 差分更新のずれ（途中失敗・月またぎなど）を定期的に元テーブルから補正する。
+ */
+@Component
+public class ReadingStatsReconcileJob {
+
+  private static final Logger log = LoggerFactory.getLogger(ReadingStatsReconcileJob.class);
+
+  private final UserReadingStatsRepository statsRepo;
+  private final ReadingStatsService statsService;
+  private final ReadingCalendarService calendarService;
+  private final ReadingRollupService rollupService;
+
+  public ReadingStatsReconcileJob(UserReadingStatsRepository statsRepo, ReadingStatsService statsService,
+                                  ReadingCalendarService calendarService, ReadingRollupService rollupService) {
+    this.statsRepo = statsRepo;
+    this.statsService = statsService;
+    this.calendarService = calendarService;
+    this.rollupService = rollupService;
+  }
+
+  @Scheduled(cron = "${app.stats.reconcile-cron}", zone = "Asia/Tokyo")
+  public void reconcileAll() {
+    int ok = 0;
+    int failed = 0;
+    for (Long userId : statsRepo.findAllUserIds()) {
+      try {
+        statsService.rebuild(userId); // ユーザーごとに別トランザクション
+        calendarService.rebuild(userId);
+        rollupService.rebuild(userId);
+        ok++;
+      } catch (RuntimeException e) {
+        failed++;
+        log.warn("reading stats rebuild failed: userId={}", userId, e);
+      }
+    }
+    log.info("reading stats reconciled: ok={}, failed={}", ok, failed);
+  }
+}
@@ -0,0 +1,110 @@
+package com.noteplace.readingsummary.stats.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.noteplace.readingsummary.dashboard.repository.DashboardAggregate;
+import com.noteplace.readingsummary.dashboard.repository.DashboardRepository;
+import com.noteplace.readingsummary.stats.domain.UserReadingStats;
+import com.noteplace.readingsummary.stats.repository.UserReadingStatsRepository;
+
+/**
+ * user_reading_stats を書き込みのたびに差分で更新する。
+ * 読んだ日（streak・読書日数）は ReadingCalendarService 側で持つ。
+ * 差分で追えないケース（本の削除）はそのユーザー分だけ数え直す。
+ */
+@Service
+public class ReadingStatsService {
+
+  private final UserReadingStatsRepository statsRepo;
+  private final DashboardRepository dashboardRepo;
+  private final ReadingCalendarService calendarService;
+
+  private final ZoneId zone = ZoneId.of("Asia/Tokyo");
+
+  public ReadingStatsService(UserReadingStatsRepository statsRepo, DashboardRepository dashboardRepo,
+                             ReadingCalendarService calendarService) {
+    this.statsRepo = statsRepo;
+    this.dashboardRepo = dashboardRepo;
+    this.calendarService = calendarService;
+  }
+
+  @Transactional
+  public UserReadingStats get(Long userId) {
+    return statsRepo.findById(userId).orElseGet(() -> rebuild(userId));
+  }
+
+  @Transactional
+  public void onBookCreated(Long userId, String status) {
+    int[] d = statusDelta(status, 1);
+    if (statsRepo.addBooks(userId, 1, d[0], d[1], d[2]) == 0) rebuild(userId);
+  }
+
+  @Transactional
+  public void onBookStatusChanged(Long userId, String from, String to) {
+    int[] a = statusDelta(from, -1);
+    int[] b = statusDelta(to, 1);
+    if (statsRepo.addBooks(userId, 0, a[0] + b[0], a[1] + b[1], a[2] + b[2]) == 0) rebuild(userId);
+  }
+
+  // セッション・要約もカスケード削除されるので丸ごと数え直す
+  @Transactional
+  public void onBookDeleted(Long userId) {
+    rebuild(userId);
+    calendarService.rebuild(userId);
+  }
+
+  @Transactional
+  public void onSummaryCreated(Long userId) {
+    if (statsRepo.addSummaries(userId, 1) == 0) rebuild(userId);
+  }
+
+  @Transactional
+  public void onSummaryDeleted(Long userId) {
+    if (statsRepo.addSummaries(userId, -1) == 0) rebuild(userId);
+  }
+
+  @Transactional
+  public void onSessionCreated(Long userId, LocalDate date, int minutes) {
+    calendarService.markRead(userId, date);
+
+    YearMonth ym = YearMonth.from(LocalDate.now(zone));
+    LocalDate monthStart = ym.atDay(1);
+    boolean inMonth = !date.isBefore(monthStart) && date.isBefore(ym.plusMonths(1).atDay(1));
+    if (statsRepo.addMonthMinutes(userId, monthStart, inMonth ? minutes : 0) == 0) rebuild(userId);
+  }
+
+  // 一括インポート後は 1 行ずつ足すより数え直したほうが速い
+  @Transactional
+  public void onSessionsImported(Long userId) {
+    rebuild(userId);
+    calendarService.rebuild(userId);
+  }
+
+  /**
+   * 元テーブルから数え直して上書きする（初回作成・ずれの補正用）。
+   */
+  @Transactional
+  public UserReadingStats rebuild(Long userId) {
+    YearMonth ym = YearMonth.from(LocalDate.now(zone));
+    LocalDate monthStart = ym.atDay(1);
+
+    DashboardAggregate agg = dashboardRepo.aggregate(userId, monthStart, ym.plusMonths(1).atDay(1));
+    statsRepo.upsert(userId, agg.getTotalBooks(), agg.getUnreadBooks(), agg.getReadingBooks(), agg.getDoneBooks(),
+        agg.getTotalSummaries(), monthStart, agg.getThisMonthMinutes());
+    return statsRepo.findById(userId).orElseThrow();
+  }
+
+  // {UNREAD, READING, DONE} の差分
+  private static int[] statusDelta(String status, int sign) {
+    int[] d = new int[3];
+    if ("UNREAD".equals(status)) d[0] = sign;
+    else if ("READING".equals(status)) d[1] = sign;
+    else if ("DONE".equals(status)) d[2] = sign;
+    return d;
+  }
+}
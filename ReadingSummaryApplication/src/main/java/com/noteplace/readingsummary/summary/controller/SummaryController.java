@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import jakarta.validation.Valid;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,14 +15,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.noteplace.readingsummary.auth.security.AuthUser;
-import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
+import com.noteplace.readingsummary.common.event.BookChangedEvent;
+import com.noteplace.readingsummary.common.event.BookChangedEvent.Entity;
+import com.noteplace.readingsummary.common.pagination.CursorPage;
+import com.noteplace.readingsummary.common.pagination.Cursors;
+import com.noteplace.readingsummary.search.service.SummaryIndexService;
+import com.noteplace.readingsummary.stats.service.ReadingStatsService;
 import com.noteplace.readingsummary.summary.domain.Summary;
 import com.noteplace.readingsummary.summary.dto.CreateSummaryRequest;
+import com.noteplace.readingsummary.summary.dto.SummaryHeaderResponse;
 import com.noteplace.readingsummary.summary.dto.SummaryResponse;
 import com.noteplace.readingsummary.summary.repository.SummaryRepository;
 
@@ -29,19 +38,73 @@ import com.noteplace.readingsummary.summary.repository.SummaryRepository;
 @RequestMapping("/api/books/{bookId}/summaries")
 public class SummaryController {
 
-  private final BookRepository bookRepo;
+  private final BookOwnershipCache ownership;
   private final SummaryRepository summaryRepo;
+  private final ReadingStatsService statsService;
+  private final ApplicationEventPublisher events;
+  private final SummaryIndexService summaryIndex;
 
-  public SummaryController(BookRepository bookRepo, SummaryRepository summaryRepo) {
-    this.bookRepo = bookRepo;
+  public SummaryController(BookOwnershipCache ownership, SummaryRepository summaryRepo, ReadingStatsService statsService,
+                           ApplicationEventPublisher events, SummaryIndexService summaryIndex) {
+    this.ownership = ownership;
     this.summaryRepo = summaryRepo;
+    this.statsService = statsService;
+    this.events = events;
+    this.summaryIndex = summaryIndex;
   }
 
   @GetMapping
-  public List<SummaryResponse> list(@AuthenticationPrincipal AuthUser user, @PathVariable Long bookId) {
+  public CursorPage<SummaryResponse> list(
+      @AuthenticationPrincipal AuthUser user,
+      @PathVariable Long bookId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit
+  ) {
+    ensureOwnBook(user, bookId);
+
+    int n = Cursors.clamp(limit);
+    List<SummaryResponse> rows;
+    if (cursor == null) {
+      rows = summaryRepo.findPage(bookId, Cursors.fetchLimit(n));
+    } else {
+      String[] k = Cursors.decode(cursor, 3);
+      rows = summaryRepo.findPageAfter(bookId, k[0],
+          Cursors.parse(k[1], Integer::parseInt), Cursors.parse(k[2], Long::valueOf), Cursors.fetchLimit(n));
+    }
+    return CursorPage.of(rows, n, s -> Cursors.encode(s.scope(), s.chapter() == null ? 0 : s.chapter(), s.id()));
+  }
+
+  // 本文なしの一覧（目次用）。カーソルは list と共通
+  @GetMapping("/headers")
+  public CursorPage<SummaryHeaderResponse> headers(
+      @AuthenticationPrincipal AuthUser user,
+      @PathVariable Long bookId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit
+  ) {
     ensureOwnBook(user, bookId);
-    return summaryRepo.findByBookIdOrderByScopeAscChapterAscIdAsc(bookId)
-        .stream().map(this::toRes).toList();
+
+    int n = Cursors.clamp(limit);
+    List<SummaryHeaderResponse> rows;
+    if (cursor == null) {
+      rows = summaryRepo.findHeaderPage(bookId, Cursors.fetchLimit(n));
+    } else {
+      String[] k = Cursors.decode(cursor, 3);
+      rows = summaryRepo.findHeaderPageAfter(bookId, k[0],
+          Cursors.parse(k[1], Integer::parseInt), Cursors.parse(k[2], Long::valueOf), Cursors.fetchLimit(n));
+    }
+    return CursorPage.of(rows, n, s -> Cursors.encode(s.scope(), s.chapter() == null ? 0 : s.chapter(), s.id()));
+  }
+
+  @GetMapping("/{summaryId}")
+  public SummaryResponse get(
+      @AuthenticationPrincipal AuthUser user,
+      @PathVariable Long bookId,
+      @PathVariable Long summaryId
+  ) {
+    ensureOwnBook(user, bookId);
+    return summaryRepo.findResponse(bookId, summaryId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "summary not found"));
   }
 
   @PostMapping
@@ -78,13 +141,16 @@ public class SummaryController {
     s.setContentMd(req.contentMd());
     s.setUpdatedAt(now);
 
+    boolean created = s.getId() == null;
     summaryRepo.save(s);
+    if (created) statsService.onSummaryCreated(user.id());
+    summaryIndex.onSummarySaved(user.id(), s);
+    events.publishEvent(BookChangedEvent.changed(Entity.SUMMARY, user.id(), bookId));
     return toRes(s);
   }
 
   private void ensureOwnBook(AuthUser user, Long bookId) {
-    bookRepo.findByIdAndUserId(bookId, user.id())
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "book not found"));
+    ownership.ensureOwned(user.id(), bookId);
   }
 
   private String normalizeScope(String scope) {
@@ -115,5 +181,8 @@ public class SummaryController {
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "summary not found"));
 
     summaryRepo.delete(s);
+    statsService.onSummaryDeleted(user.id());
+    summaryIndex.onSummaryDeleted(user.id(), s.getId());
+    events.publishEvent(BookChangedEvent.changed(Entity.SUMMARY, user.id(), bookId));
   }
 }
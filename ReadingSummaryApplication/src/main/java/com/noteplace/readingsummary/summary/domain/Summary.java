@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import lombok.Getter;
@@ -18,7 +19,8 @@ import lombok.Setter;
 public class Summary {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "summaries_seq")
+  @SequenceGenerator(name = "summaries_seq", sequenceName = "summaries_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "book_id", nullable = false)
@@ -0,0 +1,12 @@
+package com.noteplace.readingsummary.summary.dto;
+
+import java.time.Instant;
+
+/** 一覧用（本文なし）。本文は GET /api/books/{bookId}/summaries/{summaryId} で取る。 */
+public record SummaryHeaderResponse(
+    Long id,
+    String scope,
+    Integer chapter,
+    Instant createdAt,
+    Instant updatedAt
+) {}
@@ -1,16 +1,87 @@
 package com.noteplace.readingsummary.summary.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.noteplace.readingsummary.summary.domain.Summary;
+import com.noteplace.readingsummary.summary.dto.SummaryHeaderResponse;
+import com.noteplace.readingsummary.summary.dto.SummaryResponse;
 
 public interface SummaryRepository extends JpaRepository<Summary, Long> {
+  // 一覧・レポート用の読み取りは readOnly（レプリカへ回る）
+  @Transactional(readOnly = true)
   List<Summary> findByBookIdOrderByScopeAscChapterAscIdAsc(Long bookId);
+  // 一括エクスポート用：複数冊分を 1 回で取る
+  @Transactional(readOnly = true)
+  List<Summary> findByBookIdInOrderByScopeAscChapterAscIdAsc(Collection<Long> bookIds);
+
+  // キーセットページング（scope, chapter, id の昇順）。BOOK は chapter が null なので 0 として比較する。
+  // DTO で受けて永続化コンテキストに載せない。見出し版は content_md を読まない
+  String RESPONSE = """
+    select new com.noteplace.readingsummary.summary.dto.SummaryResponse(
+      s.id, s.scope, s.chapter, s.contentMd, s.createdAt, s.updatedAt)
+    """;
+
+  String HEADER = """
+    select new com.noteplace.readingsummary.summary.dto.SummaryHeaderResponse(
+      s.id, s.scope, s.chapter, s.createdAt, s.updatedAt)
+    """;
+
+  String PAGE = """
+    from Summary s
+    where s.bookId = :bookId
+    """;
+
+  String AFTER = """
+      and (s.scope > :scope
+        or (s.scope = :scope and coalesce(s.chapter, 0) > :chapter)
+        or (s.scope = :scope and coalesce(s.chapter, 0) = :chapter and s.id > :id))
+    """;
+
+  String ORDER = """
+    order by s.scope asc, coalesce(s.chapter, 0) asc, s.id asc
+    """;
+
+  @Transactional(readOnly = true)
+  @Query(RESPONSE + PAGE + ORDER)
+  List<SummaryResponse> findPage(@Param("bookId") Long bookId, Limit limit);
+
+  @Transactional(readOnly = true)
+  @Query(RESPONSE + PAGE + AFTER + ORDER)
+  List<SummaryResponse> findPageAfter(
+      @Param("bookId") Long bookId,
+      @Param("scope") String scope,
+      @Param("chapter") int chapter,
+      @Param("id") Long id,
+      Limit limit
+  );
+
+  @Transactional(readOnly = true)
+  @Query(HEADER + PAGE + ORDER)
+  List<SummaryHeaderResponse> findHeaderPage(@Param("bookId") Long bookId, Limit limit);
+
+  @Transactional(readOnly = true)
+  @Query(HEADER + PAGE + AFTER + ORDER)
+  List<SummaryHeaderResponse> findHeaderPageAfter(
+      @Param("bookId") Long bookId,
+      @Param("scope") String scope,
+      @Param("chapter") int chapter,
+      @Param("id") Long id,
+      Limit limit
+  );
+
+  @Transactional(readOnly = true)
+  @Query(RESPONSE + PAGE + """
+      and s.id = :id
+    """)
+  Optional<SummaryResponse> findResponse(@Param("bookId") Long bookId, @Param("id") Long id);
 
   Optional<Summary> findByBookIdAndScopeAndChapter(Long bookId, String scope, Integer chapter);
   Optional<Summary> findByBookIdAndScopeAndChapterIsNull(Long bookId, String scope);
@@ -3,11 +3,20 @@ package com.noteplace.readingsummary.user.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.noteplace.readingsummary.user.domain.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 	  Optional<User> findByEmail(String email);
 	  boolean existsByEmail(String email);
-	}
 
+	  // 照合したときのハッシュのままなら置き換える（コスト変更後の再ハッシュ用）
+	  @Transactional
+	  @Modifying
+	  @Query("update User u set u.passwordHash = :hash where u.id = :id and u.passwordHash = :old")
+	  int updatePasswordHash(@Param("id") Long id, @Param("old") String old, @Param("hash") String hash);
+	}
@@ -0,0 +1,11 @@
+create table user_reading_stats (
+  user_id bigint primary key references users(id) on delete cascade,
+  total_books bigint not null default 0,
+  unread_books bigint not null default 0,
+  reading_books bigint not null default 0,
+  done_books bigint not null default 0,
+  total_summaries bigint not null default 0,
+  month_start date not null,                -- month_* がどの月の値か（月が変わったら 0 として扱う）
+  month_minutes bigint not null default 0,
+  updated_at timestamptz not null default now()
+);
@@ -0,0 +1,27 @@
+-- 1 ユーザー・1 年につき 1 行。day-of-year (0 始まり) を bit 番号とするビットマップ（48 bytes = long[6]）
+create table reading_calendars (
+  user_id bigint not null references users(id) on delete cascade,
+  year int not null,
+  days bytea not null,
+  primary key (user_id, year)
+);
+
+-- 既存セッションから埋める
+with days as (
+  select distinct b.user_id,
+         extract(year from s.session_date)::int as yr,
+         extract(doy from s.session_date)::int - 1 as idx
+  from reading_sessions s
+  join books b on b.id = s.book_id
+), bytes as (
+  select user_id, yr, idx / 8 as byte_no, sum(1 << (idx % 8))::int as val
+  from days
+  group by user_id, yr, idx / 8
+)
+insert into reading_calendars (user_id, year, days)
+select k.user_id, k.yr,
+       decode(string_agg(lpad(to_hex(coalesce(bt.val, 0)), 2, '0'), '' order by g.n), 'hex')
+from (select distinct user_id, yr from bytes) k
+cross join generate_series(0, 47) as g(n)
+left join bytes bt on bt.user_id = k.user_id and bt.yr = k.yr and bt.byte_no = g.n
+group by k.user_id, k.yr;
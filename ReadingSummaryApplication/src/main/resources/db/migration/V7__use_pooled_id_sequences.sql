@@ -0,0 +1,7 @@
+-- Hibernate の pooled オプティマイザ（allocationSize = 50）に合わせてシーケンスの増分を 50 にする。
+-- nextval が返す値を払い出し範囲の上端として使うので、既存の最大 id より後ろから払い出される。
+-- 列の default（nextval）はそのまま残す（JDBC で直接 insert する経路用）。
+alter sequence users_id_seq increment by 50;
+alter sequence books_id_seq increment by 50;
+alter sequence reading_sessions_id_seq increment by 50;
+alter sequence summaries_id_seq increment by 50;
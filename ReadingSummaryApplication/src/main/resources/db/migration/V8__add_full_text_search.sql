@@ -0,0 +1,42 @@
+-- 要約本文・セッションメモの全文検索。
+-- 日本語は分かち書きできないので、CjkBigramTokenizer と同じく漢字・かな・ハングルの連続を 2 文字ずつに切って tsvector にする。
+-- 1 文字の検索語でも引けるように、連続の末尾 1 文字も最後の 2 文字と同じ位置に入れる（前方一致 '本':* で拾う）。
+-- それ以外は英数字の連続を 1 語とする。NFKC 正規化・小文字化はアプリ側（検索語）と揃える。
+-- 文字の分類はデータベースのロケールに依らないよう ICU で行う。
+create function search_bigram_tsvector(doc text) returns tsvector
+  language sql immutable strict parallel safe
+as $fn$
+  with seg as (
+    select r.n, r.m[1] as cjk, r.m[2] as other
+      from regexp_matches(
+             lower(normalize(doc, nfkc) collate "und-x-icu"),
+             '([ᄀ-ᇿ⺀-⿕々〇〡-〩〸-〻ぁ-ゖゝ-ゟァ-ヺー-ヿㄱ-ㆎㇰ-ㇿ㐀-䶿一-鿿ꥠ-ꥼ가-힣ힰ-ퟻ豈-龎\U00020000-\U0003134f]+)'
+             '|([^ᄀ-ᇿ⺀-⿕々〇〡-〩〸-〻ぁ-ゖゝ-ゟァ-ヺー-ヿㄱ-ㆎㇰ-ㇿ㐀-䶿一-鿿ꥠ-ꥼ가-힣ힰ-ퟻ豈-龎\U00020000-\U0003134f]+)',
+             'g') with ordinality as r(m, n)
+  ),
+  tok as (
+    select seg.n, k, substr(seg.cjk, k, 2) as lexeme
+      from seg, generate_series(1, char_length(seg.cjk) - 1) as k
+     where seg.cjk is not null
+    union all
+    select seg.n, greatest(char_length(seg.cjk) - 1, 1), right(seg.cjk, 1)
+      from seg
+     where seg.cjk is not null
+    union all
+    select seg.n, w.k, w.m[1]
+      from seg, regexp_matches(seg.other collate "und-x-icu", '[[:alnum:]]+', 'g') with ordinality as w(m, k)
+     where seg.other is not null
+  )
+  -- 位置の上限は tsvector と同じ 16383。長すぎる語は to_tsvector と同じく捨てる
+  select coalesce(string_agg(quote_literal(lexeme) || ':' || least(pos, 16383)::text, ' ')::tsvector, ''::tsvector)
+    from (select lexeme, dense_rank() over (order by n, k) as pos from tok) t
+   where octet_length(lexeme) < 2048
+$fn$;
+
+alter table summaries
+  add column search_tsv tsvector generated always as (search_bigram_tsvector(content_md)) stored;
+alter table reading_sessions
+  add column search_tsv tsvector generated always as (search_bigram_tsvector(coalesce(memo, ''))) stored;
+
+create index idx_summaries_search_tsv on summaries using gin (search_tsv);
+create index idx_reading_sessions_search_tsv on reading_sessions using gin (search_tsv);
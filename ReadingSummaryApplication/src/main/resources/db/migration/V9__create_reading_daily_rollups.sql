@@ -0,0 +1,26 @@
+-- (ユーザー, 本, 日) ごとの読書量。分析 API はこの表だけを集計する
+-- paged_minutes はページ数の記録があるセッションの分数（pages / paged_minutes でページ/時を出す）
+create table reading_daily_rollups (
+  user_id bigint not null references users(id) on delete cascade,
+  book_id bigint not null references books(id) on delete cascade,
+  day date not null,
+  minutes bigint not null default 0,
+  pages bigint not null default 0,
+  paged_minutes bigint not null default 0,
+  sessions int not null default 0,
+  primary key (user_id, day, book_id)
+);
+
+-- 本の削除（カスケード）用
+create index idx_reading_daily_rollups_book on reading_daily_rollups(book_id);
+
+-- 既存データの埋め戻し
+insert into reading_daily_rollups (user_id, book_id, day, minutes, pages, paged_minutes, sessions)
+select b.user_id, s.book_id, s.session_date,
+       sum(s.minutes),
+       sum(coalesce(s.pages_read, 0)),
+       sum(case when s.pages_read is not null then s.minutes else 0 end),
+       count(*)
+from reading_sessions s
+join books b on b.id = s.book_id
+group by b.user_id, s.book_id, s.session_date;
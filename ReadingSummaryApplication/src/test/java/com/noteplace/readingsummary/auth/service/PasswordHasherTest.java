@@ -0,0 +1,90 @@
+package com.noteplace.readingsummary.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+  private ThreadPoolTaskExecutor executor;
+  private PasswordHasher hasher;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(10);
+    executor.initialize();
+    hasher = new PasswordHasher(new BCryptPasswordEncoder(4), executor, 5_000, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void upgradeRunsWhenAThreadIsIdle() throws InterruptedException {
+    var done = new CountDownLatch(1);
+    var hash = new AtomicReference<String>();
+
+    hasher.encodeLater("secret", h -> {
+      hash.set(h);
+      done.countDown();
+    });
+
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(new BCryptPasswordEncoder().matches("secret", hash.get())).isTrue();
+  }
+
+  @Test
+  void upgradeIsSkippedInsteadOfQueuedWhenBusy() throws InterruptedException {
+    var running = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    executor.execute(() -> {
+      running.countDown();
+      await(release);
+    });
+    assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+    var upgraded = new CountDownLatch(1);
+    hasher.encodeLater("secret", h -> upgraded.countDown());
+
+    // ログインの照合の前に並ばない
+    assertThat(executor.getQueueSize()).isZero();
+    release.countDown();
+    assertThat(upgraded.await(200, TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  void upgradeIsSkippedWhenLoginsAreQueued() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    executor.execute(() -> await(release));
+    executor.execute(() -> {});
+
+    var upgraded = new CountDownLatch(1);
+    hasher.encodeLater("secret", h -> upgraded.countDown());
+
+    release.countDown();
+    assertThat(upgraded.await(200, TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.noteplace.readingsummary.book.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LongLongMapTest {
+
+  @Test
+  void putGetAndOverwrite() {
+    var map = new LongLongMap(4);
+    map.put(1, 10);
+    map.put(2, 20);
+    map.put(1, 11);
+
+    assertThat(map.get(1)).isEqualTo(11);
+    assertThat(map.get(2)).isEqualTo(20);
+    assertThat(map.get(3)).isZero();
+    assertThat(map.size()).isEqualTo(2);
+  }
+
+  @Test
+  void rejectsZeroKey() {
+    var map = new LongLongMap(4);
+    assertThatThrownBy(() -> map.put(0, 1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void growsPastInitialCapacity() {
+    var map = new LongLongMap(4);
+    for (long k = 1; k <= 10_000; k++) map.put(k, k * 3);
+
+    assertThat(map.size()).isEqualTo(10_000);
+    for (long k = 1; k <= 10_000; k++) assertThat(map.get(k)).isEqualTo(k * 3);
+    assertThat(map.get(10_001)).isZero();
+  }
+
+  @Test
+  void removeKeepsLaterEntriesOfTheSameRunReachable() {
+    var map = new LongLongMap(4);
+    for (long k = 1; k <= 1000; k++) map.put(k, k);
+    for (long k = 1; k <= 1000; k += 2) map.remove(k);
+
+    assertThat(map.size()).isEqualTo(500);
+    for (long k = 1; k <= 1000; k++) assertThat(map.get(k)).isEqualTo(k % 2 == 0 ? k : 0);
+
+    map.remove(1); // 無いキーは何もしない
+    map.remove(5000);
+    assertThat(map.size()).isEqualTo(500);
+  }
+
+  // 狭いキー範囲で put / remove を混ぜ、衝突・折り返し・詰め直し・拡張を HashMap と突き合わせる
+  @Test
+  void matchesHashMapUnderRandomOperations() {
+    var random = new Random(42);
+    var map = new LongLongMap(4);
+    var expected = new HashMap<Long, Long>();
+
+    for (int op = 0; op < 200_000; op++) {
+      long key = 1 + random.nextInt(300);
+      if (random.nextInt(3) == 0) {
+        map.remove(key);
+        expected.remove(key);
+      } else {
+        long value = random.nextLong() | 1; // 0 は「無い」と区別できないので避ける
+        map.put(key, value);
+        expected.put(key, value);
+      }
+      if (op % 1000 == 0) {
+        for (long k = 1; k <= 300; k++) assertThat(map.get(k)).isEqualTo(expected.getOrDefault(k, 0L));
+      }
+    }
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (long k = 1; k <= 300; k++) assertThat(map.get(k)).isEqualTo(expected.getOrDefault(k, 0L));
+  }
+
+  @Test
+  void clearEmptiesTheMap() {
+    var map = new LongLongMap(4);
+    for (long k = 1; k <= 100; k++) map.put(k, k);
+    map.clear();
+
+    assertThat(map.size()).isZero();
+    for (long k = 1; k <= 100; k++) assertThat(map.get(k)).isZero();
+    map.put(7, 70);
+    assertThat(map.get(7)).isEqualTo(70);
+  }
+}
@@ -0,0 +1,140 @@
+package com.noteplace.readingsummary.common.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.noteplace.readingsummary.ReadingSummaryApplication;
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.auth.security.JwtService;
+
+/**
+ * リクエスト処理のスレッド方式（Tomcat のプラットフォームスレッド / 仮想スレッド）を HTTP の負荷で比べる。
+ * 方式ごとにアプリを起動し直し、読み取り中心の混合リクエスト（ダッシュボード・本の一覧・セッション・要約・全文検索）を
+ * 並列数を変えて DURATION ずつ流す。クライアントは 1 接続 1 仮想スレッドで、応答を待ってから次を送る。
+ * 既定では走らない: mvn test -Dtest=ThreadModeLoadBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeLoadBenchmark {
+
+  private static final int[] CONCURRENCY = {50, 400, 1_000};
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final Duration DURATION = Duration.ofSeconds(20);
+
+  private static final int BOOKS = 20;
+  private static final int SESSIONS_PER_BOOK = 200;
+  private static final int SUMMARIES_PER_BOOK = 10;
+
+  @Test
+  void compareThreadModes() throws Exception {
+    System.out.printf("%-9s %6s %10s %10s %10s %10s %8s%n", "mode", "conc", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "errors");
+    for (boolean virtual : new boolean[] {false, true}) {
+      try (ConfigurableApplicationContext app = start(virtual)) {
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        List<HttpRequest> requests = requests(app, port);
+        for (int c : CONCURRENCY) {
+          run(requests, c, WARMUP);
+          Result r = run(requests, c, DURATION);
+          System.out.printf("%-9s %6d %10.0f %10.2f %10.2f %10.2f %8d%n", virtual ? "virtual" : "platform", c,
+              r.count() / (double) DURATION.toSeconds(), r.percentile(0.50), r.percentile(0.99), r.percentile(1.0),
+              r.errors());
+        }
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start(boolean virtual) {
+    return new SpringApplicationBuilder(ReadingSummaryApplication.class)
+        .run("--server.port=0", "--management.server.port=0", "--spring.threads.virtual.enabled=" + virtual);
+  }
+
+  // ユーザー 1 人分のデータを作り、そのユーザーで叩くリクエストを返す
+  private static List<HttpRequest> requests(ConfigurableApplicationContext app, int port) {
+    JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+    String email = "load-" + UUID.randomUUID() + "@example.com";
+    long userId = jdbc.queryForObject("insert into users (email, password_hash, role) values (?, 'x', 'USER') returning id",
+        Long.class, email);
+    var paths = new ArrayList<String>(List.of("/api/dashboard", "/api/books",
+        "/api/search?q=" + URLEncoder.encode("読書", StandardCharsets.UTF_8)));
+    for (int b = 0; b < BOOKS; b++) {
+      long bookId = jdbc.queryForObject(
+          "insert into books (user_id, title, status) values (?, ?, 'READING') returning id", Long.class, userId, "load " + b);
+      var sessions = new ArrayList<Object[]>();
+      for (int i = 0; i < SESSIONS_PER_BOOK; i++) sessions.add(new Object[] {bookId, LocalDate.now().minusDays(i), "読書メモ " + i});
+      jdbc.batchUpdate("insert into reading_sessions (book_id, session_date, minutes, memo) values (?, ?, 30, ?)", sessions);
+      var summaries = new ArrayList<Object[]>();
+      for (int c = 1; c <= SUMMARIES_PER_BOOK; c++) summaries.add(new Object[] {bookId, c, "第" + c + "章の読書の要約"});
+      jdbc.batchUpdate("insert into summaries (book_id, scope, chapter, content_md) values (?, 'CHAPTER', ?, ?)", summaries);
+      paths.add("/api/books/" + bookId + "/sessions");
+      paths.add("/api/books/" + bookId + "/summaries");
+    }
+    String token = app.getBean(JwtService.class).generate(new AuthUser(userId, email, "USER"));
+    return paths.stream()
+        .map(p -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + p))
+            .header("Authorization", "Bearer " + token)
+            .build())
+        .toList();
+  }
+
+  private static Result run(List<HttpRequest> requests, int concurrency, Duration duration) throws Exception {
+    long end = System.nanoTime() + duration.toNanos();
+    try (var clients = Executors.newVirtualThreadPerTaskExecutor();
+         var http = HttpClient.newBuilder().executor(clients).build()) {
+      var futures = new ArrayList<Future<Result>>();
+      for (int c = 0; c < concurrency; c++) {
+        int offset = c;
+        futures.add(clients.submit(() -> {
+          var nanos = new ArrayList<Long>();
+          int errors = 0;
+          for (int i = offset; System.nanoTime() < end; i++) {
+            long t0 = System.nanoTime();
+            try {
+              var res = http.send(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding());
+              if (res.statusCode() == 200) nanos.add(System.nanoTime() - t0);
+              else errors++;
+            } catch (IOException e) {
+              errors++;
+            }
+          }
+          return new Result(nanos, errors);
+        }));
+      }
+      var all = new ArrayList<Long>();
+      int errors = 0;
+      for (Future<Result> f : futures) {
+        all.addAll(f.get().nanos());
+        errors += f.get().errors();
+      }
+      all.sort(null);
+      return new Result(all, errors);
+    }
+  }
+
+  private record Result(List<Long> nanos, int errors) {
+    int count() { return nanos.size(); }
+
+    double percentile(double p) {
+      if (nanos.isEmpty()) return 0;
+      int i = Math.min(nanos.size() - 1, (int) (nanos.size() * p));
+      return nanos.get(i) / 1e6;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.noteplace.readingsummary.common.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.book.controller.BookController;
+import com.noteplace.readingsummary.book.dto.BookResponse;
+import com.noteplace.readingsummary.book.dto.CreateBookRequest;
+import com.noteplace.readingsummary.user.domain.User;
+import com.noteplace.readingsummary.user.repository.UserRepository;
+
+/**
+ * プライマリ（appdb）とレプリカ役の別データベース（appdb_replica、同じスキーマで中身は空）で振り分けを確かめる。
+ * レプリカには書き込まないので、本が見えればプライマリ、見えなければレプリカから読んでいる。
+ */
+@SpringBootTest(properties = {
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+    "app.datasource.replica.max-lag=1s",
+    "app.datasource.replica.read-your-writes=1s",
+    "app.datasource.replica.check-interval=100",
+})
+class ReplicaRoutingDataSourceTest {
+
+  static final String REPLICA_URL = "jdbc:postgresql://localhost:5432/appdb_replica";
+
+  @Autowired ReplicaRoutingDataSource routing;
+  @Autowired BookController books;
+  @Autowired UserRepository users;
+
+  @BeforeAll
+  static void migrateReplica() {
+    Flyway.configure().dataSource(REPLICA_URL, "appuser", "strong_password").load().migrate();
+  }
+
+  // テストが束ねるモックリクエストはメソッドが空で「書き込みリクエスト」扱いになるので外す
+  @BeforeEach
+  void noRequest() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @AfterEach
+  void clearAuth() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void readsFollowOwnWriteThenMoveToReplica() throws InterruptedException {
+    AuthUser user = login();
+    waitForReplica();
+
+    BookResponse created = books.create(user, new CreateBookRequest("title", null, null, null, "UNREAD", 100));
+
+    // 書き込み直後は read-your-writes でプライマリ
+    assertThat(books.list(user, null, 50).items()).extracting(BookResponse::id).containsExactly(created.id());
+
+    // 期間が過ぎればレプリカ（中身は空）
+    Thread.sleep(1200);
+    assertThat(books.list(user, null, 50).items()).isEmpty();
+  }
+
+  @Test
+  void laggingReplicaFallsBackToPrimary() throws InterruptedException {
+    AuthUser user = login();
+    waitForReplica();
+    BookResponse created = books.create(user, new CreateBookRequest("title", null, null, null, "UNREAD", 100));
+    Thread.sleep(1200);
+
+    // 次の確認（100ms ごと）で戻るまでの間はプライマリ
+    routing.setReplicaUsableUntil(0);
+    assertThat(books.list(user, null, 50).items()).extracting(BookResponse::id).containsExactly(created.id());
+  }
+
+  @Test
+  void staleCheckMakesReplicaUnusable() throws InterruptedException {
+    var r = new ReplicaRoutingDataSource(routing, routing, Duration.ofSeconds(1));
+    r.setReplicaUsableUntil(System.currentTimeMillis() + 200);
+    assertThat(r.isReplicaUsable()).isTrue();
+
+    // 確認が来ないまま期限を過ぎた
+    Thread.sleep(300);
+    assertThat(r.isReplicaUsable()).isFalse();
+  }
+
+  private AuthUser login() {
+    User u = new User();
+    u.setEmail(UUID.randomUUID() + "@example.com");
+    u.setPasswordHash("x");
+    u.setRole("USER");
+    users.save(u);
+    AuthUser user = new AuthUser(u.getId(), u.getEmail(), u.getRole());
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    return user;
+  }
+
+  private void waitForReplica() throws InterruptedException {
+    for (int i = 0; i < 50 && !routing.isReplicaUsable(); i++) Thread.sleep(100);
+    assertThat(routing.isReplicaUsable()).isTrue();
+  }
+}
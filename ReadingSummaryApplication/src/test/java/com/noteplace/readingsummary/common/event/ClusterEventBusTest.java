@@ -0,0 +1,78 @@
+package com.noteplace.readingsummary.common.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.noteplace.readingsummary.ReadingSummaryApplication;
+import com.noteplace.readingsummary.common.event.BookChangedEvent.Entity;
+import com.noteplace.readingsummary.report.service.ReportCache;
+
+/**
+ * 同じ DB（appdb）につないだ 2 ノードを立てて、NOTIFY での中継と LISTEN 張り直し時の破棄を確かめる。
+ */
+class ClusterEventBusTest {
+
+  private static ConfigurableApplicationContext nodeA;
+  private static ConfigurableApplicationContext nodeB;
+
+  @BeforeAll
+  static void startNodes() {
+    nodeA = start();
+    nodeB = start();
+  }
+
+  @AfterAll
+  static void stopNodes() {
+    if (nodeA != null) nodeA.close();
+    if (nodeB != null) nodeB.close();
+  }
+
+  @Test
+  void relaysChangesToOtherNodes() throws InterruptedException {
+    long bookId = System.nanoTime();
+    ReportCache cacheA = nodeA.getBean(ReportCache.class);
+    ReportCache cacheB = nodeB.getBean(ReportCache.class);
+
+    long beforeA = cacheA.version(bookId);
+    long beforeB = cacheB.version(bookId);
+
+    nodeA.publishEvent(BookChangedEvent.changed(Entity.SUMMARY, 1L, bookId));
+
+    assertThat(cacheA.version(bookId)).isGreaterThan(beforeA);
+    await(() -> cacheB.version(bookId) > beforeB);
+  }
+
+  @Test
+  void flushesCachesAfterReconnect() throws InterruptedException {
+    long bookId = System.nanoTime();
+    ReportCache cacheB = nodeB.getBean(ReportCache.class);
+    cacheB.put(bookId, 0, new byte[] {1, 2, 3});
+    assertThat(cacheB.get(bookId, 0)).isNotNull();
+
+    // 両ノードの LISTEN 接続を切る。切れている間の通知は届かない
+    nodeA.getBean(JdbcTemplate.class).queryForList("""
+        select pg_terminate_backend(pid) from pg_stat_activity
+        where pid <> pg_backend_pid() and query = 'LISTEN %s'
+        """.formatted(ClusterEventBus.CHANNEL));
+
+    await(() -> cacheB.get(bookId, 0) == null);
+  }
+
+  private static ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(ReadingSummaryApplication.class)
+        .run("--server.port=0", "--management.server.port=0", "--app.cluster.events.poll-millis=100");
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) Thread.sleep(100);
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+}
@@ -0,0 +1,128 @@
+package com.noteplace.readingsummary.dashboard.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.dashboard.repository.DashboardRepository;
+import com.noteplace.readingsummary.session.repository.ReadingSessionRepository;
+import com.noteplace.readingsummary.summary.repository.SummaryRepository;
+
+/**
+ * ダッシュボードのレイテンシ（p50 / p95 / p99）を 3 つの組み立てで比べる。
+ * <ul>
+ *   <li>eight-queries: 集約前。件数・今月の分数・読んだ日をそれぞれ別のクエリで（計 8 回）</li>
+ *   <li>two-queries: DashboardRepository.aggregate と 1 年分の読んだ日（計 2 回）</li>
+ *   <li>current: DashboardService.getDashboard（user_reading_stats の 1 行と読書カレンダー）</li>
+ * </ul>
+ * 既定では走らない: mvn test -Dtest=DashboardQueryBenchmark -Dbenchmark=true
+ * テスト用 DB にデータを作って残す（2 回目以降は再利用）。
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DashboardQueryBenchmark {
+
+  private static final String EMAIL = "dashboard-benchmark@example.com";
+  private static final int BOOKS = 200;
+  private static final int SUMMARIES_PER_BOOK = 10;
+  // 5 年分、1 日 1〜2 セッション
+  private static final int DAYS = 5 * 365;
+
+  private static final int WARMUP = 200;
+  private static final int RUNS = 2_000;
+
+  private static final String[] STATUSES = {"UNREAD", "READING", "DONE"};
+
+  @Autowired DashboardService dashboardService;
+  @Autowired DashboardRepository dashboardRepo;
+  @Autowired BookRepository bookRepo;
+  @Autowired ReadingSessionRepository sessionRepo;
+  @Autowired SummaryRepository summaryRepo;
+  @Autowired JdbcTemplate jdbc;
+
+  private final ZoneId zone = ZoneId.of("Asia/Tokyo");
+  private long userId;
+
+  @BeforeEach
+  void seed() {
+    Long existing = jdbc.query("select id from users where email = ?", rs -> rs.next() ? rs.getLong(1) : null, EMAIL);
+    if (existing != null) {
+      userId = existing;
+      return;
+    }
+    var random = new Random(42);
+    userId = jdbc.queryForObject("insert into users (email, password_hash, role) values (?, 'x', 'USER') returning id",
+        Long.class, EMAIL);
+    long[] books = new long[BOOKS];
+    for (int i = 0; i < BOOKS; i++) {
+      books[i] = jdbc.queryForObject(
+          "insert into books (user_id, title, status) values (?, 'benchmark', ?) returning id",
+          Long.class, userId, STATUSES[i % STATUSES.length]);
+      var summaries = new ArrayList<Object[]>();
+      for (int c = 1; c <= SUMMARIES_PER_BOOK; c++) summaries.add(new Object[]{books[i], c, "要約 " + c});
+      jdbc.batchUpdate("insert into summaries (book_id, scope, chapter, content_md) values (?, 'CHAPTER', ?, ?)", summaries);
+    }
+    var sessions = new ArrayList<Object[]>();
+    LocalDate today = LocalDate.now(zone);
+    for (int d = 0; d < DAYS; d++) {
+      for (int k = 0, n = 1 + random.nextInt(2); k < n; k++) {
+        sessions.add(new Object[]{books[random.nextInt(BOOKS)], today.minusDays(d), 10 + random.nextInt(50)});
+      }
+    }
+    jdbc.batchUpdate("insert into reading_sessions (book_id, session_date, minutes) values (?, ?, ?)", sessions);
+    jdbc.execute("analyze users, books, summaries, reading_sessions");
+  }
+
+  @Test
+  void latency() {
+    System.out.printf("%-14s %10s %10s %10s%n", "mode", "p50(ms)", "p95(ms)", "p99(ms)");
+    measure("eight-queries", this::eightQueries);
+    measure("two-queries", this::twoQueries);
+    measure("current", () -> dashboardService.getDashboard(userId));
+  }
+
+  // 集約前の getDashboard と同じクエリ
+  private void eightQueries() {
+    LocalDate today = LocalDate.now(zone);
+    YearMonth ym = YearMonth.from(today);
+    sessionRepo.sumMinutesByUserIdBetween(userId, ym.atDay(1), ym.plusMonths(1).atDay(1));
+    sessionRepo.findDistinctSessionDatesByUserIdBetween(userId, today.minusDays(365), today);
+    sessionRepo.findDistinctSessionDatesByUserIdBetween(userId, ym.atDay(1), today);
+    bookRepo.countByUserId(userId);
+    bookRepo.countByUserIdAndStatus(userId, "UNREAD");
+    bookRepo.countByUserIdAndStatus(userId, "READING");
+    bookRepo.countByUserIdAndStatus(userId, "DONE");
+    summaryRepo.countSummariesByUserId(userId);
+  }
+
+  private void twoQueries() {
+    LocalDate today = LocalDate.now(zone);
+    YearMonth ym = YearMonth.from(today);
+    dashboardRepo.aggregate(userId, ym.atDay(1), ym.plusMonths(1).atDay(1));
+    sessionRepo.findDistinctSessionDatesByUserIdBetween(userId, today.minusDays(365), today);
+  }
+
+  private void measure(String mode, Runnable r) {
+    for (int i = 0; i < WARMUP; i++) r.run();
+    long[] nanos = new long[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      long t0 = System.nanoTime();
+      r.run();
+      nanos[i] = System.nanoTime() - t0;
+    }
+    Arrays.sort(nanos);
+    System.out.printf("%-14s %10.3f %10.3f %10.3f%n", mode,
+        nanos[RUNS / 2] / 1e6, nanos[(int) (RUNS * 0.95)] / 1e6, nanos[(int) (RUNS * 0.99)] / 1e6);
+  }
+}
@@ -0,0 +1,97 @@
+package com.noteplace.readingsummary.report.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.auth.security.JwtService;
+import com.noteplace.readingsummary.book.domain.Book;
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.report.service.PdfReportService;
+import com.noteplace.readingsummary.user.domain.User;
+import com.noteplace.readingsummary.user.repository.UserRepository;
+
+/**
+ * レポート生成の失敗が、書き出し前なら 500、書き出し途中なら接続断としてクライアントに届くことを確かめる。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+class ReportControllerStreamingTest {
+
+  @LocalServerPort int port;
+  @Autowired JwtService jwt;
+  @Autowired UserRepository users;
+  @Autowired BookRepository books;
+  @MockitoBean PdfReportService pdfReportService;
+
+  private final HttpClient http = HttpClient.newHttpClient();
+
+  @Test
+  void failureBeforeStreamingIsA500() throws Exception {
+    Book book = newBook();
+    when(pdfReportService.findOwnBook(anyLong(), anyLong())).thenReturn(book);
+    when(pdfReportService.prepare(any()))
+        .thenThrow(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "pdf generation failed"));
+
+    HttpResponse<String> res = http.send(request(book), HttpResponse.BodyHandlers.ofString());
+
+    assertThat(res.statusCode()).isEqualTo(500);
+    assertThat(res.body()).contains("pdf generation failed");
+  }
+
+  @Test
+  void failureWhileStreamingAbortsTheConnection() throws Exception {
+    Book book = newBook();
+    when(pdfReportService.findOwnBook(anyLong(), anyLong())).thenReturn(book);
+    // バッファを超えて書いて（コミット済みにして）から失敗する
+    when(pdfReportService.prepare(any())).thenReturn(out -> {
+      try {
+        out.write(new byte[256 * 1024]);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "pdf generation failed");
+    });
+
+    assertThatThrownBy(() -> http.send(request(book), HttpResponse.BodyHandlers.ofByteArray()))
+        .isInstanceOf(IOException.class);
+  }
+
+  private HttpRequest request(Book book) {
+    String token = jwt.generate(new AuthUser(book.getUserId(), "report@example.com", "USER"));
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books/" + book.getId() + "/report.pdf"))
+        .header("Authorization", "Bearer " + token)
+        .build();
+  }
+
+  private Book newBook() {
+    User u = new User();
+    u.setEmail(UUID.randomUUID() + "@example.com");
+    u.setPasswordHash("x");
+    u.setRole("USER");
+    long userId = users.save(u).getId();
+
+    Book b = new Book();
+    b.setUserId(userId);
+    b.setTitle("report");
+    b.setStatus("READING");
+    return books.save(b);
+  }
+}
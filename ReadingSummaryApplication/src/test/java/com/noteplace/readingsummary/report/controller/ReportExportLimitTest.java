@@ -0,0 +1,95 @@
+package com.noteplace.readingsummary.report.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.noteplace.readingsummary.auth.security.AuthUser;
+import com.noteplace.readingsummary.auth.security.JwtService;
+import com.noteplace.readingsummary.report.service.ReportExportService;
+
+/**
+ * 一括エクスポートの同時実行数の上限を確かめる。上限を超えた分は 503 になり、
+ * 流し終わったら（失敗しても）枠が戻る。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"management.server.port=0", "app.report.export.max-concurrent=1"})
+class ReportExportLimitTest {
+
+  @LocalServerPort int port;
+  @Autowired JwtService jwt;
+  @MockitoSpyBean ReportExportService exportService;
+
+  private final HttpClient http = HttpClient.newHttpClient();
+
+  @Test
+  void exportsBeyondTheLimitAreRejectedUntilOneFinishes() throws Exception {
+    var started = new CountDownLatch(1);
+    var finish = new CountDownLatch(1);
+    doAnswer(inv -> {
+      started.countDown();
+      finish.await(30, TimeUnit.SECONDS);
+      inv.<OutputStream>getArgument(1).write("zip".getBytes());
+      return null;
+    }).when(exportService).writeZip(anyLong(), any());
+
+    CompletableFuture<HttpResponse<String>> first = http.sendAsync(request(), HttpResponse.BodyHandlers.ofString());
+    assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+
+    HttpResponse<String> second = http.send(request(), HttpResponse.BodyHandlers.ofString());
+    assertThat(second.statusCode()).isEqualTo(503);
+    assertThat(second.headers().firstValue("Retry-After")).isPresent();
+
+    finish.countDown();
+    assertThat(first.get(30, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+
+    // 枠は非同期処理の完了で返るので、少し待ってから
+    assertThat(statusWithin(200, 5_000)).isEqualTo(200);
+  }
+
+  @Test
+  void failedExportReleasesItsSlot() throws Exception {
+    doAnswer(inv -> {
+      throw new IllegalStateException("boom");
+    }).when(exportService).writeZip(anyLong(), any());
+
+    assertThat(http.send(request(), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(500);
+
+    assertThat(statusWithin(500, 5_000)).isEqualTo(500);
+  }
+
+  // 503 の間は待って再試行し、expected か期限切れ時点のステータスを返す
+  private int statusWithin(int expected, long millis) throws Exception {
+    long deadline = System.currentTimeMillis() + millis;
+    int status;
+    do {
+      status = http.send(request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+      if (status == expected) return status;
+      Thread.sleep(50);
+    } while (System.currentTimeMillis() < deadline);
+    return status;
+  }
+
+  private HttpRequest request() {
+    String token = jwt.generate(new AuthUser(1L, "export@example.com", "USER"));
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books/reports.zip"))
+        .header("Authorization", "Bearer " + token)
+        .build();
+  }
+}
@@ -0,0 +1,84 @@
+package com.noteplace.readingsummary.report.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.noteplace.readingsummary.session.dto.ReadingSessionResponse;
+
+/**
+ * 一括エクスポートのセッション先読み（冊をまたいだキーセットページング）で、
+ * 本ごとに 1 冊ずつ読んだときと同じ行が同じ順で出ることを確かめる（PostgreSQL 上で）。
+ */
+@SpringBootTest
+class PdfReportServiceSessionPagesTest {
+
+  @Autowired PdfReportService pdfReportService;
+  @Autowired JdbcTemplate jdbc;
+
+  // 0 件 / 数件 / 複数ページ / 1 ページ超 の本
+  private static final int[] SESSIONS = {0, 3, 1_200, 700};
+
+  private final List<Long> bookIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    long userId = jdbc.queryForObject("insert into users (email, password_hash, role) values (?, 'x', 'USER') returning id",
+        Long.class, UUID.randomUUID() + "@example.com");
+    for (int n : SESSIONS) {
+      long bookId = jdbc.queryForObject("insert into books (user_id, title, status) values (?, 'export', 'READING') returning id",
+          Long.class, userId);
+      var rows = new ArrayList<Object[]>();
+      // 同じ日に 3 件ずつ（id で順序が決まる行を含める）
+      for (int i = 0; i < n; i++) rows.add(new Object[] {bookId, LocalDate.of(2025, 1, 1).minusDays(i / 3), "memo " + i});
+      jdbc.batchUpdate("insert into reading_sessions (book_id, session_date, minutes, memo) values (?, ?, 30, ?)", rows);
+      bookIds.add(bookId);
+    }
+  }
+
+  @Test
+  void prefetchingEverythingMatchesPerBookOrder() {
+    var prefetch = pdfReportService.prefetchSessions(bookIds, 100_000);
+
+    for (Long bookId : bookIds) assertThat(drain(bookId, prefetch)).isEqualTo(expected(bookId));
+  }
+
+  @Test
+  void booksPastTheLimitAreReadPerBook() {
+    // 1 ページ目（0 件・3 件の本と 3 冊目の途中）で止まる
+    var prefetch = pdfReportService.prefetchSessions(bookIds, 1);
+
+    for (Long bookId : bookIds) assertThat(drain(bookId, prefetch)).isEqualTo(expected(bookId));
+  }
+
+  @Test
+  void limitEndingInsideALaterBook() {
+    // 3 冊目を読み切り、4 冊目の途中で止まる
+    var prefetch = pdfReportService.prefetchSessions(bookIds, 1_300);
+
+    // 取り出す順はバッチの並び（id 降順）と同じにする
+    for (Long bookId : bookIds.reversed()) assertThat(drain(bookId, prefetch)).isEqualTo(expected(bookId));
+  }
+
+  private List<Long> drain(Long bookId, PdfReportService.SessionPrefetch prefetch) {
+    var pages = pdfReportService.sessionPages(bookId, prefetch);
+    var ids = new ArrayList<Long>();
+    List<ReadingSessionResponse> page;
+    while (!(page = pages.next()).isEmpty()) page.forEach(s -> ids.add(s.id()));
+    return ids;
+  }
+
+  private List<Long> expected(Long bookId) {
+    return jdbc.queryForList("select id from reading_sessions where book_id = ? order by session_date desc, id desc",
+        Long.class, bookId);
+  }
+}
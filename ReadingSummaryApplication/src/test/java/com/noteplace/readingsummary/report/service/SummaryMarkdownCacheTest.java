@@ -0,0 +1,161 @@
+package com.noteplace.readingsummary.report.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.lowagie.text.Font;
+import com.noteplace.readingsummary.report.service.MarkdownBlock.Kind;
+import com.noteplace.readingsummary.report.service.MarkdownBlock.Span;
+import com.noteplace.readingsummary.summary.domain.Summary;
+
+class SummaryMarkdownCacheTest {
+
+  private final SummaryMarkdownCache cache = new SummaryMarkdownCache(2);
+
+  @Test
+  void nestedBulletListsGoOneLevelDeeper() {
+    var blocks = cache.parse("""
+        - 第一
+          - 入れ子
+            - さらに
+        - 第二
+        """);
+
+    assertThat(blocks).extracting(MarkdownBlock::kind).containsOnly(Kind.LIST_ITEM);
+    assertThat(blocks).extracting(MarkdownBlock::level).containsExactly(0, 1, 2, 0);
+    assertThat(blocks).extracting(MarkdownBlock::marker).containsExactly("•", "•", "•", "•");
+    assertThat(blocks).extracting(SummaryMarkdownCacheTest::text).containsExactly("第一", "入れ子", "さらに", "第二");
+  }
+
+  @Test
+  void orderedListKeepsItsStartNumber() {
+    var blocks = cache.parse("""
+        3. 三
+        4. 四
+           1. 四の一
+           2. 四の二
+        5. 五
+        """);
+
+    assertThat(blocks).extracting(MarkdownBlock::marker).containsExactly("3.", "4.", "1.", "2.", "5.");
+    assertThat(blocks).extracting(MarkdownBlock::level).containsExactly(0, 0, 1, 1, 0);
+  }
+
+  @Test
+  void laterParagraphsOfAListItemHaveNoMarker() {
+    var blocks = cache.parse("""
+        1. 最初の段落
+
+           続きの段落
+        2. 次
+        """);
+
+    assertThat(blocks).extracting(MarkdownBlock::marker).containsExactly("1.", "", "2.");
+    assertThat(blocks).extracting(MarkdownBlock::level).containsExactly(0, 0, 0);
+  }
+
+  @Test
+  void quotesNestByDepth() {
+    var blocks = cache.parse("""
+        > 引用
+        >
+        > > 引用の引用
+        >
+        > - 引用の中の箇条書き
+        """);
+
+    assertThat(blocks).extracting(MarkdownBlock::kind).containsExactly(Kind.QUOTE, Kind.QUOTE, Kind.LIST_ITEM);
+    assertThat(blocks).extracting(MarkdownBlock::level).containsExactly(1, 2, 1);
+    assertThat(blocks).extracting(SummaryMarkdownCacheTest::text).containsExactly("引用", "引用の引用", "引用の中の箇条書き");
+  }
+
+  @Test
+  void codeBlocksAndInlineCode() {
+    var blocks = cache.parse("""
+        ```java
+        int a = 1;
+        int b = 2;
+        ```
+
+            indented
+
+        `var` を使う
+        """);
+
+    assertThat(blocks).extracting(MarkdownBlock::kind).containsExactly(Kind.CODE, Kind.CODE, Kind.PARAGRAPH);
+    // 末尾の改行は落とす
+    assertThat(blocks.get(0).spans()).containsExactly(new Span("int a = 1;\nint b = 2;", Font.NORMAL, true));
+    assertThat(blocks.get(1).spans()).containsExactly(new Span("indented", Font.NORMAL, true));
+    assertThat(blocks.get(2).spans()).containsExactly(
+        new Span("var", Font.NORMAL, true),
+        new Span(" を使う", Font.NORMAL, false));
+  }
+
+  @Test
+  void emphasisStylesCombine() {
+    var blocks = cache.parse("普通 *斜体* **太字** ***両方*** **太字の中の *斜体***");
+
+    assertThat(blocks).hasSize(1);
+    assertThat(blocks.get(0).spans()).containsExactly(
+        new Span("普通 ", Font.NORMAL, false),
+        new Span("斜体", Font.ITALIC, false),
+        new Span(" ", Font.NORMAL, false),
+        new Span("太字", Font.BOLD, false),
+        new Span(" ", Font.NORMAL, false),
+        new Span("両方", Font.BOLD | Font.ITALIC, false),
+        new Span(" ", Font.NORMAL, false),
+        new Span("太字の中の ", Font.BOLD, false),
+        new Span("斜体", Font.BOLD | Font.ITALIC, false));
+  }
+
+  @Test
+  void headingsRulesAndLineBreaks() {
+    var blocks = cache.parse("""
+        ## 見出し
+
+        一行目
+        二行目
+
+        ---
+        """);
+
+    assertThat(blocks).extracting(MarkdownBlock::kind).containsExactly(Kind.HEADING, Kind.PARAGRAPH, Kind.RULE);
+    assertThat(blocks.get(0).level()).isEqualTo(2);
+    assertThat(text(blocks.get(1))).isEqualTo("一行目\n二行目");
+  }
+
+  @Test
+  void nullIsEmpty() {
+    assertThat(cache.parse(null)).isEmpty();
+  }
+
+  @Test
+  void blocksAreReparsedOnlyWhenUpdatedAtChanges() {
+    Summary s = summary(1L, "# 一", Instant.parse("2025-01-01T00:00:00Z"));
+    List<MarkdownBlock> first = cache.blocks(s);
+
+    assertThat(cache.blocks(s)).isSameAs(first);
+
+    s.setContentMd("# 二");
+    s.setUpdatedAt(Instant.parse("2025-01-02T00:00:00Z"));
+    assertThat(text(cache.blocks(s).get(0))).isEqualTo("二");
+  }
+
+  private static Summary summary(Long id, String md, Instant updatedAt) {
+    var s = new Summary();
+    s.setId(id);
+    s.setContentMd(md);
+    s.setUpdatedAt(updatedAt);
+    return s;
+  }
+
+  private static String text(MarkdownBlock b) {
+    var sb = new StringBuilder();
+    for (Span s : b.spans()) sb.append(s.text());
+    return sb.toString();
+  }
+}
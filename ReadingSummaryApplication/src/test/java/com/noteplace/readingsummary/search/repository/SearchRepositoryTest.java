@@ -0,0 +1,140 @@
+package com.noteplace.readingsummary.search.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.noteplace.readingsummary.book.domain.Book;
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.search.dto.SearchHitResponse;
+import com.noteplace.readingsummary.search.service.SearchService;
+import com.noteplace.readingsummary.user.domain.User;
+import com.noteplace.readingsummary.user.repository.UserRepository;
+
+/**
+ * 日本語の要約・メモが search_tsv（2 文字ずつの tsvector）で引けて、ts_rank で順位が付くことを確かめる（PostgreSQL 上で）。
+ * 検索語の組み立ては SearchService のものを通す。
+ */
+@SpringBootTest
+class SearchRepositoryTest {
+
+  @Autowired SearchService searchService;
+  @Autowired UserRepository users;
+  @Autowired BookRepository books;
+  @Autowired JdbcTemplate jdbc;
+
+  private long userId;
+  private long bookId;
+
+  @BeforeEach
+  void setUp() {
+    User u = new User();
+    u.setEmail(UUID.randomUUID() + "@example.com");
+    u.setPasswordHash("x");
+    u.setRole("USER");
+    userId = users.save(u).getId();
+
+    Book b = new Book();
+    b.setUserId(userId);
+    b.setTitle("検索");
+    b.setStatus("READING");
+    bookId = books.save(b).getId();
+  }
+
+  @Test
+  void findsJapanesePhraseWithPositiveRank() {
+    long hit = summary(1, "毎日の読書記録をつけると、続けやすくなる。");
+    summary(2, "記録は大事だが、読書とは別の話。");
+
+    List<SearchHitResponse> hits = search("読書記録");
+
+    assertThat(hits).extracting(SearchHitResponse::id).containsExactly(hit);
+    assertThat(hits.get(0).rank()).isPositive();
+  }
+
+  @Test
+  void bigramsMustBeAdjacent() {
+    summary(1, "毎日の読書記録をつける。");
+
+    assertThat(search("記録読書")).isEmpty();
+  }
+
+  @Test
+  void oneCharacterQueryMatchesAnywhereInARun() {
+    long head = summary(1, "本棚を整理した。");
+    long tail = summary(2, "日本の歴史。");
+    long alone = summary(3, "Kindle と紙の本 を比べる。");
+    summary(4, "まったく関係のない話。");
+
+    assertThat(search("本")).extracting(SearchHitResponse::id).containsExactlyInAnyOrder(head, tail, alone);
+  }
+
+  @Test
+  void twoCharacterQueryMatches() {
+    long hit = summary(1, "第三章は経済の話。");
+    summary(2, "第三章は歴史の話。");
+
+    assertThat(search("経済")).extracting(SearchHitResponse::id).containsExactly(hit);
+  }
+
+  @Test
+  void mixedScriptTermAndNormalization() {
+    long hit = summary(1, "はじめてのＪａｖａ入門書を読んだ。");
+    summary(2, "JavaScript の本を読んだ。");
+
+    assertThat(search("java入門")).extracting(SearchHitResponse::id).containsExactly(hit);
+    // 英数字は前方一致
+    assertThat(search("jav")).hasSize(2);
+  }
+
+  @Test
+  void everyTermMustMatch() {
+    long both = summary(1, "読書会で Java の話をした。");
+    summary(2, "読書会に参加した。");
+
+    assertThat(search("読書 java")).extracting(SearchHitResponse::id).containsExactly(both);
+  }
+
+  @Test
+  void ranksMoreFrequentMatchesHigher() {
+    long once = summary(1, "要約を書いた。今日はたくさん散歩もした。天気が良かった。");
+    long often = summary(2, "要約、要約、また要約。");
+
+    assertThat(search("要約")).extracting(SearchHitResponse::id).containsExactly(often, once);
+  }
+
+  @Test
+  void findsSessionMemos() {
+    jdbc.update("insert into reading_sessions (book_id, session_date, minutes, memo) values (?, current_date, 30, ?)",
+        bookId, "通勤電車で三十ページ読んだ");
+
+    List<SearchHitResponse> hits = search("電車");
+
+    assertThat(hits).extracting(SearchHitResponse::kind).containsExactly("SESSION");
+    assertThat(hits.get(0).rank()).isPositive();
+  }
+
+  @Test
+  void symbolsOnlyMatchesNothing() {
+    summary(1, "「」、。！");
+
+    assertThat(search("「」")).isEmpty();
+  }
+
+  private List<SearchHitResponse> search(String q) {
+    return searchService.search(userId, q, null, 20).items();
+  }
+
+  private long summary(int chapter, String content) {
+    return jdbc.queryForObject(
+        "insert into summaries (book_id, scope, chapter, content_md) values (?, 'CHAPTER', ?, ?) returning id",
+        Long.class, bookId, chapter, content);
+  }
+}
@@ -0,0 +1,145 @@
+package com.noteplace.readingsummary.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IndexShardTest {
+
+  @TempDir Path dir;
+
+  @Test
+  void snapshotRoundTripKeepsSearchResults() throws IOException {
+    var shard = new IndexShard();
+    shard.put(1, 10, 1000, "吾輩は猫である。名前はまだ無い。");
+    shard.put(2, 10, 2000, "Spring Boot で JPA を使う");
+    shard.put(3, 20, 3000, "猫と暮らす Spring の日々");
+    shard.put(2, 10, 4000, "Spring Boot で JDBC を使う"); // 更新（古い番号は削除済み）
+
+    Path file = dir.resolve("1.idx");
+    shard.writeTo(file);
+    IndexShard read = IndexShard.readFrom(file);
+
+    assertThat(read.liveCount()).isEqualTo(3);
+    assertThat(read.maxUpdatedMillis()).isEqualTo(4000);
+    for (String q : List.of("猫", "spring", "spring jd", "jpa", "名前 猫", "暮らす")) {
+      List<String> terms = CjkBigramTokenizer.tokenize(q);
+      assertThat(read.search(terms, 10)).as(q).isEqualTo(shard.search(terms, 10));
+    }
+    assertThat(read.search(CjkBigramTokenizer.tokenize("spring"), 10))
+        .extracting(IndexShard.Hit::summaryId).containsExactly(2L, 3L);
+    assertThat(read.search(CjkBigramTokenizer.tokenize("jpa"), 10)).isEmpty();
+  }
+
+  @Test
+  void readShardAcceptsFurtherUpdates() throws IOException {
+    var shard = new IndexShard();
+    shard.put(1, 10, 1000, "alpha beta");
+    Path file = dir.resolve("1.idx");
+    shard.writeTo(file);
+
+    IndexShard read = IndexShard.readFrom(file);
+    read.put(2, 10, 2000, "alpha gamma");
+    read.remove(1);
+
+    assertThat(read.search(List.of("alpha"), 10)).extracting(IndexShard.Hit::summaryId).containsExactly(2L);
+    assertThat(read.isDirty()).isTrue();
+  }
+
+  @Test
+  void compactsAfterMostDocumentsAreDeleted() throws IOException {
+    var shard = new IndexShard();
+    for (int id = 1; id <= 100; id++) shard.put(id, id % 3, id, "common doc" + id);
+    for (int id = 1; id <= 60; id++) shard.remove(id);
+
+    assertThat(shard.liveCount()).isEqualTo(40);
+    assertThat(shard.search(List.of("common"), 100)).extracting(IndexShard.Hit::summaryId)
+        .containsExactlyElementsOf(descending(100, 61));
+    assertThat(shard.search(List.of("doc5"), 10)).isEmpty();
+
+    // 詰め直した後も追加・削除・スナップショットが番号どおりに動く
+    shard.put(101, 0, 101, "common late");
+    shard.remove(70);
+    Path file = dir.resolve("1.idx");
+    shard.writeTo(file);
+    IndexShard read = IndexShard.readFrom(file);
+
+    assertThat(read.liveCount()).isEqualTo(40);
+    assertThat(read.maxUpdatedMillis()).isEqualTo(101);
+    assertThat(read.search(List.of("common"), 3)).extracting(IndexShard.Hit::summaryId).containsExactly(101L, 100L, 99L);
+    assertThat(read.search(List.of("doc70"), 10)).isEmpty();
+    assertThat(read.search(List.of("doc71"), 10)).extracting(IndexShard.Hit::bookId).containsExactly(71L % 3);
+  }
+
+  @Test
+  void truncatedSnapshotIsRejected() throws IOException {
+    var shard = new IndexShard();
+    shard.put(1, 10, 1000, "吾輩は猫である");
+    shard.put(2, 10, 2000, "alpha beta gamma");
+    Path file = dir.resolve("1.idx");
+    shard.writeTo(file);
+
+    byte[] bytes = Files.readAllBytes(file);
+    for (int len : new int[] { 0, 6, 20, bytes.length - 1 }) {
+      Files.write(file, Arrays.copyOf(bytes, len));
+      assertThatThrownBy(() -> IndexShard.readFrom(file)).as("length %d", len).isInstanceOf(IOException.class);
+    }
+  }
+
+  @Test
+  void unknownFormatIsRejected() throws IOException {
+    Path file = dir.resolve("1.idx");
+    Files.write(file, new byte[64]);
+    assertThatThrownBy(() -> IndexShard.readFrom(file)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void postingListEncodesLargeGaps() {
+    var p = new PostingList();
+    int[] docs = { 0, 1, 127, 128, 16_384, 2_097_152, Integer.MAX_VALUE };
+    for (int d : docs) p.add(d);
+
+    assertThat(p.count()).isEqualTo(docs.length);
+    assertThat(p.toArray()).containsExactly(docs);
+
+    ByteBuffer buf = ByteBuffer.allocate(p.serializedSize());
+    p.writeTo(buf);
+    assertThat(buf.hasRemaining()).isFalse();
+    buf.flip();
+    PostingList read = PostingList.readFrom(buf);
+    assertThat(read.toArray()).containsExactly(docs);
+
+    // 読み込んだ後も末尾に足せる
+    var q = new PostingList();
+    q.add(5);
+    ByteBuffer b2 = ByteBuffer.allocate(q.serializedSize());
+    q.writeTo(b2);
+    b2.flip();
+    PostingList q2 = PostingList.readFrom(b2);
+    q2.add(300);
+    assertThat(q2.toArray()).containsExactly(5, 300);
+  }
+
+  @Test
+  void postingListRejectsNonIncreasingDocs() {
+    var p = new PostingList();
+    p.add(3);
+    assertThatThrownBy(() -> p.add(3)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<Long> descending(long from, long to) {
+    var out = new ArrayList<Long>();
+    for (long i = from; i >= to; i--) out.add(i);
+    return out;
+  }
+}
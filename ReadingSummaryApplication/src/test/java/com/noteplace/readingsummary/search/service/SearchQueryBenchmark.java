@@ -0,0 +1,125 @@
+package com.noteplace.readingsummary.search.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.noteplace.readingsummary.search.repository.SearchRepository;
+
+/**
+ * 全文検索のレイテンシ（p50 / p95）を要約 100 万件の上で測る。候補の上限あり（app.search.max-candidates）と、
+ * 上限なし（ヒットを全部 ts_rank で並べる。以前の動き）を比べる。
+ * 既定では走らない: mvn test -Dtest=SearchQueryBenchmark -Dbenchmark=true
+ * テスト用 DB にデータを作って残す（2 回目以降は再利用）。
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SearchQueryBenchmark {
+
+  private static final String HEAVY_EMAIL = "search-benchmark-heavy@example.com";
+  // 1 人で 20 万件持つユーザーと、1,000 件ずつの 800 人
+  private static final int HEAVY_BOOKS = 100;
+  private static final int HEAVY_PER_BOOK = 2_000;
+  private static final int OTHER_USERS = 800;
+  private static final int OTHER_PER_USER = 1_000;
+  private static final int TOTAL = HEAVY_BOOKS * HEAVY_PER_BOOK + OTHER_USERS * OTHER_PER_USER;
+
+  private static final int WARMUP = 20;
+  private static final int RUNS = 200;
+  private static final int PAGE = 21;
+
+  // 先頭ほどよく出る（出現頻度は Zipf 風）
+  private static final String[] WORDS = {
+      "読書", "今日は", "本を", "読んだ", "経済", "歴史", "要約", "章", "面白い", "考え方",
+      "仕事", "習慣", "記録", "続ける", "学び", "社会", "科学", "心理", "物語", "主人公",
+      "Java", "入門", "設計", "データ", "分析", "戦略", "組織", "言葉", "文化", "哲学",
+      "統計", "投資", "健康", "睡眠", "料理", "旅行", "写真", "音楽", "数学", "宇宙",
+      "生物", "進化", "脳", "記憶", "集中", "時間", "お金", "家族", "教育", "未来",
+  };
+
+  @Autowired SearchRepository searchRepo;
+  @Autowired JdbcTemplate jdbc;
+
+  private long heavyUserId;
+
+  @BeforeEach
+  void seed() {
+    Long existing = jdbc.query("select id from users where email = ?", rs -> rs.next() ? rs.getLong(1) : null, HEAVY_EMAIL);
+    Integer count = jdbc.queryForObject("select count(*) from summaries", Integer.class);
+    if (existing != null && count >= TOTAL) {
+      heavyUserId = existing;
+      return;
+    }
+    var random = new Random(42);
+    heavyUserId = newUser(HEAVY_EMAIL);
+    for (int b = 0; b < HEAVY_BOOKS; b++) insertSummaries(newBook(heavyUserId), HEAVY_PER_BOOK, random);
+    for (int u = 0; u < OTHER_USERS; u++) {
+      long userId = newUser("search-benchmark-" + u + "@example.com");
+      insertSummaries(newBook(userId), OTHER_PER_USER, random);
+    }
+    jdbc.execute("analyze users, books, summaries");
+  }
+
+  @Test
+  void latency() {
+    System.out.printf("%-12s %10s %10s %10s %10s %8s%n", "query", "hits", "mode", "p50(ms)", "p95(ms)", "rows");
+    for (String q : List.of("読書", "経済", "宇宙", "脳", "読書 経済", "java入門")) {
+      String tsq = SearchService.toTsQuery(Arrays.asList(q.split("\\s+")));
+      Integer hits = jdbc.queryForObject("""
+          select count(*) from summaries s join books b on b.id = s.book_id
+          where b.user_id = ? and s.search_tsv @@ cast(? as tsquery)
+          """, Integer.class, heavyUserId, tsq);
+      measure(q, hits, "all", tsq, Integer.MAX_VALUE);
+      measure(q, hits, "bounded", tsq, 1_000);
+    }
+  }
+
+  private void measure(String q, int hits, String mode, String tsq, int candidates) {
+    int rows = 0;
+    for (int i = 0; i < WARMUP; i++) rows = searchRepo.search(heavyUserId, tsq, candidates, PAGE).size();
+    long[] nanos = new long[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      long t0 = System.nanoTime();
+      searchRepo.search(heavyUserId, tsq, candidates, PAGE);
+      nanos[i] = System.nanoTime() - t0;
+    }
+    Arrays.sort(nanos);
+    System.out.printf("%-12s %10d %10s %10.2f %10.2f %8d%n", q, hits, mode,
+        nanos[RUNS / 2] / 1e6, nanos[(int) (RUNS * 0.95)] / 1e6, rows);
+  }
+
+  private void insertSummaries(long bookId, int n, Random random) {
+    var args = new ArrayList<Object[]>(n);
+    for (int i = 0; i < n; i++) args.add(new Object[]{bookId, i + 1, sentence(random)});
+    jdbc.batchUpdate("insert into summaries (book_id, scope, chapter, content_md) values (?, 'CHAPTER', ?, ?)", args);
+  }
+
+  private static String sentence(Random random) {
+    var sb = new StringBuilder();
+    int words = 8 + random.nextInt(8);
+    for (int i = 0; i < words; i++) {
+      double r = random.nextDouble();
+      sb.append(WORDS[(int) (WORDS.length * r * r * r)]);
+      sb.append(random.nextInt(4) == 0 ? "、" : "");
+    }
+    return sb.append("。").toString();
+  }
+
+  private long newUser(String email) {
+    return jdbc.queryForObject("insert into users (email, password_hash, role) values (?, 'x', 'USER') returning id",
+        Long.class, email);
+  }
+
+  private long newBook(long userId) {
+    return jdbc.queryForObject("insert into books (user_id, title, status) values (?, 'benchmark', 'READING') returning id",
+        Long.class, userId);
+  }
+}
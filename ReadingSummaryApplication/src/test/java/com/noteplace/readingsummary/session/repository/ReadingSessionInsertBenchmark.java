@@ -0,0 +1,123 @@
+package com.noteplace.readingsummary.session.repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.noteplace.readingsummary.session.domain.ReadingSession;
+
+/**
+ * 読書セッションの insert 件数/秒を比べる（1 トランザクションで ROWS 件）。
+ * <ul>
+ *   <li>identity: IDENTITY 採番のときに Hibernate が出すのと同じ、1 行ずつの insert（生成キーを受け取る、バッチなし）</li>
+ *   <li>pooled-batch: いまの設定のまま saveAll（シーケンスを 50 件ずつ確保し、50 件ずつ JDBC バッチ）</li>
+ * </ul>
+ * 既定では走らない: mvn test -Dtest=ReadingSessionInsertBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReadingSessionInsertBenchmark {
+
+  private static final int ROWS = 10_000;
+  private static final int WARMUP = 2;
+  private static final int RUNS = 5;
+
+  private static final String INSERT_SQL = """
+      insert into reading_sessions (book_id, session_date, minutes, pages_read, memo, created_at)
+      values (?, ?, ?, ?, ?, ?)
+      """;
+
+  @Autowired ReadingSessionRepository sessionRepo;
+  @Autowired JdbcTemplate jdbc;
+  @Autowired TransactionTemplate tx;
+
+  private long userId;
+  private long bookId;
+
+  @BeforeEach
+  void setUp() {
+    userId = jdbc.queryForObject(
+        "insert into users (email, password_hash, role) values ('insert-benchmark-' || gen_random_uuid() || '@example.com', 'x', 'USER') returning id",
+        Long.class);
+    bookId = jdbc.queryForObject("insert into books (user_id, title, status) values (?, 'benchmark', 'READING') returning id",
+        Long.class, userId);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbc.update("delete from books where id = ?", bookId);
+    jdbc.update("delete from users where id = ?", userId);
+  }
+
+  @Test
+  void insertsPerSecond() {
+    System.out.printf("%-14s %12s %12s%n", "mode", "median(/s)", "best(/s)");
+    measure("identity", this::identityInserts);
+    measure("pooled-batch", this::pooledBatchInserts);
+  }
+
+  private void identityInserts() {
+    Timestamp now = Timestamp.from(Instant.now());
+    tx.executeWithoutResult(status -> jdbc.execute((Connection c) -> {
+      try (PreparedStatement ps = c.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        for (int i = 0; i < ROWS; i++) {
+          ps.setLong(1, bookId);
+          ps.setDate(2, Date.valueOf(LocalDate.of(2025, 1, 1).plusDays(i % 365)));
+          ps.setInt(3, 30);
+          ps.setInt(4, 10);
+          ps.setString(5, "memo " + i);
+          ps.setTimestamp(6, now);
+          ps.executeUpdate();
+          try (var keys = ps.getGeneratedKeys()) {
+            keys.next();
+          }
+        }
+      }
+      return null;
+    }));
+  }
+
+  private void pooledBatchInserts() {
+    Instant now = Instant.now();
+    List<ReadingSession> rows = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      var s = new ReadingSession();
+      s.setBookId(bookId);
+      s.setSessionDate(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+      s.setMinutes(30);
+      s.setPagesRead(10);
+      s.setMemo("memo " + i);
+      s.setCreatedAt(now);
+      rows.add(s);
+    }
+    tx.executeWithoutResult(status -> sessionRepo.saveAll(rows));
+  }
+
+  private void measure(String mode, Runnable r) {
+    for (int i = 0; i < WARMUP; i++) r.run();
+    double[] perSecond = new double[RUNS];
+    for (int i = 0; i < RUNS; i++) {
+      long t0 = System.nanoTime();
+      r.run();
+      perSecond[i] = ROWS / ((System.nanoTime() - t0) / 1e9);
+    }
+    Arrays.sort(perSecond);
+    System.out.printf("%-14s %12.0f %12.0f%n", mode, perSecond[RUNS / 2], perSecond[RUNS - 1]);
+  }
+}
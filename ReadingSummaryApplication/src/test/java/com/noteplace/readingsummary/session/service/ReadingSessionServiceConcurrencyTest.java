@@ -0,0 +1,138 @@
+package com.noteplace.readingsummary.session.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.noteplace.readingsummary.book.domain.Book;
+import com.noteplace.readingsummary.book.repository.BookRepository;
+import com.noteplace.readingsummary.book.service.BookOwnershipCache;
+import com.noteplace.readingsummary.session.dto.CreateReadingSessionRequest;
+import com.noteplace.readingsummary.user.domain.User;
+import com.noteplace.readingsummary.user.repository.UserRepository;
+
+/**
+ * 同じ本へのセッション投稿を並列に流し、currentPage の加算を取りこぼさないことを確かめる（PostgreSQL 上で）。
+ */
+@SpringBootTest
+class ReadingSessionServiceConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int PER_THREAD = 20;
+
+  @Autowired ReadingSessionService sessionService;
+  @Autowired UserRepository users;
+  @Autowired BookRepository books;
+  @Autowired BookOwnershipCache ownership;
+  @Autowired JdbcTemplate jdbc;
+
+  @Test
+  void concurrentCreatesAddEveryPage() throws Exception {
+    long userId = newUser();
+    long bookId = newBook(userId, null);
+
+    int accepted = run(userId, bookId);
+
+    assertThat(accepted).isEqualTo(THREADS * PER_THREAD);
+    assertThat(currentPage(bookId)).isEqualTo(sumOfSessionPages(bookId)).isEqualTo(expectedTotal());
+  }
+
+  @Test
+  void concurrentCreatesStopAtTotalPages() throws Exception {
+    long userId = newUser();
+    int totalPages = expectedTotal() / 3;
+    long bookId = newBook(userId, totalPages);
+
+    int accepted = run(userId, bookId);
+
+    assertThat(accepted).isLessThan(THREADS * PER_THREAD);
+    assertThat(countSessions(bookId)).isEqualTo(accepted);
+    assertThat(currentPage(bookId)).isEqualTo(sumOfSessionPages(bookId)).isLessThanOrEqualTo(totalPages);
+  }
+
+  // 受け付けられた件数を返す（totalPages 超えの 400 は数えない）
+  private int run(long userId, long bookId) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    var start = new CountDownLatch(1);
+    var accepted = new AtomicInteger();
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(pool.submit(() -> {
+          start.await();
+          for (int i = 0; i < PER_THREAD; i++) {
+            var req = new CreateReadingSessionRequest(LocalDate.of(2025, 1, 1 + i), 10, pagesFor(i), null);
+            try {
+              sessionService.create(userId, bookId, req);
+              accepted.incrementAndGet();
+            } catch (ResponseStatusException e) {
+              // totalPages 超え
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> f : futures) f.get();
+    } finally {
+      pool.shutdownNow();
+    }
+    return accepted.get();
+  }
+
+  private static int pagesFor(int i) {
+    return 1 + i % 7;
+  }
+
+  private static int expectedTotal() {
+    int perThread = 0;
+    for (int i = 0; i < PER_THREAD; i++) perThread += pagesFor(i);
+    return perThread * THREADS;
+  }
+
+  private long newUser() {
+    User u = new User();
+    u.setEmail(UUID.randomUUID() + "@example.com");
+    u.setPasswordHash("x");
+    u.setRole("USER");
+    return users.save(u).getId();
+  }
+
+  private long newBook(long userId, Integer totalPages) {
+    Book b = new Book();
+    b.setUserId(userId);
+    b.setTitle("stress");
+    b.setStatus("READING");
+    b.setTotalPages(totalPages);
+    books.save(b);
+    ownership.put(b.getId(), userId);
+    return b.getId();
+  }
+
+  private int currentPage(long bookId) {
+    return jdbc.queryForObject("select current_page from books where id = ?", Integer.class, bookId);
+  }
+
+  private int sumOfSessionPages(long bookId) {
+    return jdbc.queryForObject("select coalesce(sum(pages_read), 0) from reading_sessions where book_id = ?",
+        Integer.class, bookId);
+  }
+
+  private int countSessions(long bookId) {
+    return jdbc.queryForObject("select count(*) from reading_sessions where book_id = ?", Integer.class, bookId);
+  }
+}
@@ -0,0 +1,135 @@
+package com.noteplace.readingsummary.stats.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class ReadingCalendarTest {
+
+  @Test
+  void marksDaysAcrossWordBoundaries() {
+    var cal = new ReadingCalendar();
+    LocalDate jan1 = LocalDate.of(2023, 1, 1);
+    for (int day : new int[] { 0, 63, 64, 127, 128, 364 }) cal.mark(jan1.plusDays(day));
+
+    for (int day = 0; day < 365; day++) {
+      boolean marked = day == 0 || day == 63 || day == 64 || day == 127 || day == 128 || day == 364;
+      assertThat(cal.isRead(jan1.plusDays(day))).as("day %d", day).isEqualTo(marked);
+    }
+    assertThat(cal.isRead(LocalDate.of(2024, 1, 1))).isFalse();
+  }
+
+  @Test
+  void leapDayUsesTheLastBit() {
+    var cal = new ReadingCalendar();
+    cal.mark(LocalDate.of(2024, 12, 31)); // 366 日目 = bit 365
+
+    long[] w = cal.yearWords(2024);
+    assertThat(w[5]).isEqualTo(1L << (365 - 5 * 64));
+    assertThat(cal.countDays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))).isEqualTo(1);
+  }
+
+  @Test
+  void streakCountsBackwardsWithinAYear() {
+    var cal = new ReadingCalendar();
+    for (LocalDate d = LocalDate.of(2023, 2, 20); !d.isAfter(LocalDate.of(2023, 3, 10)); d = d.plusDays(1)) cal.mark(d);
+
+    assertThat(cal.streakEndingAt(LocalDate.of(2023, 3, 10))).isEqualTo(19);
+    assertThat(cal.streakEndingAt(LocalDate.of(2023, 3, 5))).isEqualTo(14); // bit 63 / 64 をまたぐ
+    assertThat(cal.streakEndingAt(LocalDate.of(2023, 3, 11))).isZero();
+    assertThat(cal.streakEndingAt(LocalDate.of(2023, 2, 20))).isEqualTo(1);
+  }
+
+  @Test
+  void streakCrossesYearBoundaries() {
+    var cal = new ReadingCalendar();
+    cal.mark(LocalDate.of(2023, 12, 30));
+    cal.mark(LocalDate.of(2023, 12, 31));
+    cal.mark(LocalDate.of(2024, 1, 1));
+    cal.mark(LocalDate.of(2024, 1, 2));
+
+    assertThat(cal.streakEndingAt(LocalDate.of(2024, 1, 2))).isEqualTo(4);
+    assertThat(cal.streakEndingAt(LocalDate.of(2024, 1, 1))).isEqualTo(3);
+  }
+
+  @Test
+  void streakFromAYearAfterALeapYearStartsAtDay366() {
+    var cal = new ReadingCalendar();
+    cal.mark(LocalDate.of(2024, 12, 30));
+    cal.mark(LocalDate.of(2024, 12, 31));
+    cal.mark(LocalDate.of(2025, 1, 1));
+
+    assertThat(cal.streakEndingAt(LocalDate.of(2025, 1, 1))).isEqualTo(3);
+  }
+
+  @Test
+  void streakSpansAWholeYear() {
+    var cal = new ReadingCalendar();
+    for (LocalDate d = LocalDate.of(2023, 1, 1); d.getYear() == 2023; d = d.plusDays(1)) cal.mark(d);
+    cal.mark(LocalDate.of(2024, 1, 1));
+
+    assertThat(cal.streakEndingAt(LocalDate.of(2023, 12, 31))).isEqualTo(365);
+    assertThat(cal.streakEndingAt(LocalDate.of(2024, 1, 1))).isEqualTo(366);
+  }
+
+  @Test
+  void streakStopsWhenThePreviousYearIsMissing() {
+    var cal = new ReadingCalendar();
+    cal.mark(LocalDate.of(2024, 1, 1));
+    cal.mark(LocalDate.of(2024, 1, 2));
+
+    assertThat(cal.streakEndingAt(LocalDate.of(2024, 1, 2))).isEqualTo(2);
+  }
+
+  @Test
+  void countDaysMasksPartialWords() {
+    var cal = new ReadingCalendar();
+    for (LocalDate d = LocalDate.of(2023, 1, 1); d.getYear() == 2023; d = d.plusDays(2)) cal.mark(d); // 1 日おき
+
+    assertThat(cal.countDays(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31))).isEqualTo(183);
+    assertThat(cal.countDays(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 1))).isEqualTo(1);
+    assertThat(cal.countDays(LocalDate.of(2023, 1, 2), LocalDate.of(2023, 1, 2))).isZero();
+    // day 60..130（3 語にまたがる）: 偶数 day が 36 個
+    assertThat(cal.countDays(LocalDate.of(2023, 1, 1).plusDays(60), LocalDate.of(2023, 1, 1).plusDays(130)))
+        .isEqualTo(36);
+    assertThat(cal.countDays(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 2, 1))).isZero();
+    assertThat(cal.countDays(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31))).isZero();
+  }
+
+  @Test
+  void countDaysRejectsRangesAcrossYears() {
+    var cal = new ReadingCalendar();
+    assertThatThrownBy(() -> cal.countDays(LocalDate.of(2023, 12, 31), LocalDate.of(2024, 1, 1)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void bytesAreLittleEndianBitsOfTheWords() {
+    var cal = new ReadingCalendar();
+    cal.mark(LocalDate.of(2023, 1, 1));  // bit 0
+    cal.mark(LocalDate.of(2023, 1, 10)); // bit 9
+    cal.mark(LocalDate.of(2023, 3, 6));  // bit 64
+
+    byte[] bytes = ReadingCalendar.toBytes(cal.yearWords(2023));
+    assertThat(bytes).hasSize(ReadingCalendar.BYTES_PER_YEAR);
+    assertThat(bytes[0]).isEqualTo((byte) 0x01);
+    assertThat(bytes[1]).isEqualTo((byte) 0x02);
+    assertThat(bytes[8]).isEqualTo((byte) 0x01);
+
+    var copy = new ReadingCalendar();
+    copy.putYear(2023, bytes);
+    assertThat(copy.yearWords(2023)).containsExactly(cal.yearWords(2023));
+  }
+
+  @Test
+  void shortByteArraysLeaveTheRestEmpty() {
+    var cal = new ReadingCalendar();
+    cal.putYear(2023, new byte[] { 0x01, 0, 0, 0, 0, 0, 0, 0, (byte) 0xFF });
+
+    assertThat(cal.isRead(LocalDate.of(2023, 1, 1))).isTrue();
+    assertThat(cal.countDays(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31))).isEqualTo(1);
+  }
+}
@@ -12,3 +12,9 @@ api.interceptors.request.use((config) => {
   }
   return config;
 });
+
+// キーセットページングのレスポンス（next が null なら最後のページ）
+export type CursorPage<T> = {
+  items: T[];
+  next: string | null;
+};